@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the tick hook's submit path and the window reads used by commands. Run with
+ * {@code ./gradlew jmh}; the gc profiler's gc.alloc.rate.norm column is the bytes/op, which
+ * must stay at 0 for the submit path.
+ * 
+ * @author Daniel Tebor
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Group)
+public class TickInfoTrackerBenchmark {
+
+    private static final int TICK_TIME_COUNT = 1024;
+
+    private final long[] tickTimesNS = new long[TICK_TIME_COUNT];
+    private TickInfoTracker tickInfoTracker;
+    private int tickTimeIdx;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Mostly healthy ticks with an occasional lag spike, so every histogram range is exercised.
+        for (int i = 0; i < TICK_TIME_COUNT; i++) {
+            tickTimesNS[i] = i % 100 == 0 ? 300000000L : 5000000L + (i * 7919L) % 40000000L;
+        }
+
+        tickInfoTracker = new TickInfoTracker();
+        // Fill the longest window so every submit also expires a tick from each window.
+        for (int i = 0; i < TickInfoTracker.MAX_SECONDS_TO_TRACK * TickInfoTracker.DESIRED_TPS; i++) {
+            tickInfoTracker.submitTickTimeNS(tickTimesNS[i % TICK_TIME_COUNT]);
+        }
+    }
+
+    @Benchmark
+    @Group("submit")
+    public void submit() {
+        tickInfoTracker.submitTickTimeNS(tickTimesNS[tickTimeIdx++ & (TICK_TIME_COUNT - 1)]);
+    }
+
+    @Benchmark
+    @Group("readWindows")
+    public float readWindows() {
+        return readAllWindows();
+    }
+
+    @Benchmark
+    @Group("submitWithReader")
+    @GroupThreads(1)
+    public void submitWithReaderSubmit() {
+        tickInfoTracker.submitTickTimeNS(tickTimesNS[tickTimeIdx++ & (TICK_TIME_COUNT - 1)]);
+    }
+
+    @Benchmark
+    @Group("submitWithReader")
+    @GroupThreads(1)
+    public float submitWithReaderRead() {
+        return readAllWindows();
+    }
+
+    private float readAllWindows() {
+        float sum = 0;
+        for (int secondsToTrack : TickInfoTracker.WINDOWS_SECONDS) {
+            sum += tickInfoTracker.getTPS(secondsToTrack);
+            sum += tickInfoTracker.getMSPT(secondsToTrack);
+            sum += tickInfoTracker.getMSPTPercentile(secondsToTrack, 99);
+        }
+        return sum;
+    }
+}
\ No newline at end of file
@@ -23,13 +23,24 @@
 package com.danieltebor.mc_server_analytics;
 
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
 import com.danieltebor.mc_server_analytics.command.Commands;
 import com.danieltebor.mc_server_analytics.tracker.CPUInfoTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLoadAttributionTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLoadTracker;
+import com.danieltebor.mc_server_analytics.tracker.HistoryTracker;
+import com.danieltebor.mc_server_analytics.tracker.LagSpikeTracker;
+import com.danieltebor.mc_server_analytics.tracker.ProfilerTracker;
+import com.danieltebor.mc_server_analytics.tracker.RegionIoTracker;
 import com.danieltebor.mc_server_analytics.tracker.WorldFileInfoTracker;
 import com.danieltebor.mc_server_analytics.util.ConfigUtil;
 
 import net.fabricmc.api.DedicatedServerModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 
 import net.minecraft.server.MinecraftServer;
@@ -44,7 +55,29 @@ public class MCServerAnalytics implements DedicatedServerModInitializer {
     private Properties configProperties = ConfigUtil.readConfig();
     private MinecraftServer server;
     private CPUInfoTracker cpuInfoTracker = new CPUInfoTracker();
-    private WorldFileInfoTracker worldFileInfoTracker = new WorldFileInfoTracker();
+    private WorldFileInfoTracker worldFileInfoTracker = new WorldFileInfoTracker(
+        ConfigUtil.getLongProperty(configProperties, "worldSizeRescanMinutes"));
+    private LagSpikeTracker lagSpikeTracker = new LagSpikeTracker(
+        ConfigUtil.getLongProperty(configProperties, "lagSpikeThresholdMS"),
+        ConfigUtil.getLongProperty(configProperties, "lagSpikeSampleIntervalMS"),
+        (int) ConfigUtil.getLongProperty(configProperties, "lagSpikeMaxReports"),
+        ConfigUtil.getDataDir("lag-spikes"));
+    private ProfilerTracker profilerTracker = new ProfilerTracker(
+        ConfigUtil.getLongProperty(configProperties, "profilerSampleIntervalMS"),
+        ConfigUtil.getDataDir("profiles"));
+    private HistoryTracker historyTracker = new HistoryTracker(
+        ConfigUtil.getLongProperty(configProperties, "historyRetentionHours"),
+        ConfigUtil.getDataDir("history.bin"));
+    private RegionIoTracker regionIoTracker = new RegionIoTracker();
+    private ChunkLoadAttributionTracker chunkLoadAttributionTracker = new ChunkLoadAttributionTracker();
+    private long chunkChurnAlertLoadsPerMinute = ConfigUtil.getLongProperty(configProperties, "chunkChurnAlertLoadsPerMinute");
+    private long entityGrowthAlertPerMinute = ConfigUtil.getLongProperty(configProperties, "entityGrowthAlertPerMinute");
+    // Runs analysis of data snapshotted on the server thread, one job at a time.
+    private ExecutorService analyticsExecutor = Executors.newSingleThreadExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "MCServerAnalytics Worker");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     public MCServerAnalytics() {
         if (instance != null) {
@@ -57,9 +90,34 @@ public class MCServerAnalytics implements DedicatedServerModInitializer {
     public void onInitializeServer() {
         cpuInfoTracker.start();
         worldFileInfoTracker.start();
+        lagSpikeTracker.start();
+        profilerTracker.start();
+        historyTracker.start();
 
         Commands.registerCommands();
 
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            final long chunkPos = chunk.getPos().toLong();
+            ((ServerWorldAccessor) world).getChunkCountTracker().onChunkLoad();
+            ((ServerWorldAccessor) world).getChunkChurnTracker().onChunkLoad(chunkPos);
+
+            final ChunkLoadTracker.Source source = ((ServerWorldAccessor) world).getChunkLoadTracker().onChunkLoaded(chunkPos);
+            if (source != null) {
+                chunkLoadAttributionTracker.submit(world, chunkPos, source);
+            }
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            ((ServerWorldAccessor) world).getChunkCountTracker().onChunkUnload();
+            ((ServerWorldAccessor) world).getChunkChurnTracker().onChunkUnload(chunk.getPos().toLong());
+        });
+
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            ((ServerWorldAccessor) world).getEntityCensusTracker().onEntityLoad(entity);
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            ((ServerWorldAccessor) world).getEntityCensusTracker().onEntityUnload(entity);
+        });
+
         ServerLifecycleEvents.SERVER_STARTED.register((server) -> {
             synchronized (this) {
                 this.server = server;
@@ -68,6 +126,10 @@ public class MCServerAnalytics implements DedicatedServerModInitializer {
         ServerLifecycleEvents.SERVER_STOPPED.register((server) -> {
             cpuInfoTracker.close();
             worldFileInfoTracker.close();
+            lagSpikeTracker.close();
+            profilerTracker.close();
+            historyTracker.close();
+            analyticsExecutor.shutdownNow();
         });
     }
 
@@ -87,6 +149,38 @@ public class MCServerAnalytics implements DedicatedServerModInitializer {
         return worldFileInfoTracker;
     }
 
+    public LagSpikeTracker getLagSpikeTracker() {
+        return lagSpikeTracker;
+    }
+
+    public ProfilerTracker getProfilerTracker() {
+        return profilerTracker;
+    }
+
+    public HistoryTracker getHistoryTracker() {
+        return historyTracker;
+    }
+
+    public RegionIoTracker getRegionIoTracker() {
+        return regionIoTracker;
+    }
+
+    public ChunkLoadAttributionTracker getChunkLoadAttributionTracker() {
+        return chunkLoadAttributionTracker;
+    }
+
+    public long getChunkChurnAlertLoadsPerMinute() {
+        return chunkChurnAlertLoadsPerMinute;
+    }
+
+    public long getEntityGrowthAlertPerMinute() {
+        return entityGrowthAlertPerMinute;
+    }
+
+    public ExecutorService getAnalyticsExecutor() {
+        return analyticsExecutor;
+    }
+
     public static MCServerAnalytics getInstance() {
         return instance;
     }
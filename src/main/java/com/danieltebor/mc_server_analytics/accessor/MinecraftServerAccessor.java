@@ -22,6 +22,15 @@
 
 package com.danieltebor.mc_server_analytics.accessor;
 
+import com.danieltebor.mc_server_analytics.tracker.HeadroomTracker;
+import com.danieltebor.mc_server_analytics.tracker.TaskQueueTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickCostTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickInfoTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickPhaseTracker;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
 /**
  * @author Daniel Tebor
  */
@@ -36,4 +45,18 @@ public interface MinecraftServerAccessor {
     public float getMSPT1m();
     public float getMSPT5m();
     public float getMSPT15m();
+    public float getMSPTPercentile5s(double percentile);
+    public float getMSPTPercentile15s(double percentile);
+    public float getMSPTPercentile1m(double percentile);
+    public float getMSPTPercentile5m(double percentile);
+    public float getMSPTPercentile15m(double percentile);
+    public float getHeadroomPercent(int secondsToTrack);
+    public float getServerThreadUtilizationPercent(int secondsToTrack);
+    public TickInfoTracker getTickInfoTracker();
+    public TickInfoTracker getTickInfoTracker(RegistryKey<World> dimension);
+    public TickPhaseTracker getTickPhaseTracker();
+    public TickCostTracker getEntityCostTracker();
+    public TickCostTracker getBlockEntityCostTracker();
+    public HeadroomTracker getHeadroomTracker();
+    public TaskQueueTracker getTaskQueueTracker();
 }
\ No newline at end of file
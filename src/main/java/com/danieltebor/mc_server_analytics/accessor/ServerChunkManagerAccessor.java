@@ -22,11 +22,17 @@
 
 package com.danieltebor.mc_server_analytics.accessor;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
 import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ChunkTicket;
+import net.minecraft.util.collection.SortedArraySet;
 
 /**
  * @author Daniel Tebor
  */
 public interface ServerChunkManagerAccessor {
     public Iterable<ChunkHolder> getChunkHolderEntryIterator();
+    public ChunkHolder getCurrentChunkHolder(final long pos);
+    public Long2ObjectOpenHashMap<SortedArraySet<ChunkTicket<?>>> getTicketsByPosition();
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.accessor;
+
+import com.danieltebor.mc_server_analytics.tracker.ChunkChurnTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkCountTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkHotspotTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLoadTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityCensusTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityPopulationTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickInfoTracker;
+
+/**
+ * @author Daniel Tebor
+ */
+public interface ServerWorldAccessor {
+    public TickInfoTracker getTickInfoTracker();
+    public ChunkHotspotTracker getChunkHotspotTracker();
+    public ChunkCountTracker getChunkCountTracker();
+    public ChunkLoadTracker getChunkLoadTracker();
+    public ChunkChurnTracker getChunkChurnTracker();
+    public EntityCensusTracker getEntityCensusTracker();
+    public EntityPopulationTracker getEntityPopulationTracker();
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.registry.Registries;
+import net.minecraft.server.command.ServerCommandSource;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class BlockEntityCostCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "block-entity-cost";
+    public static final String[][] ARG_NAMES = {};
+    public static final String DESCRIPTION = "Shows the block entity types that took the most tick time over 1m";
+
+    private static final int SECONDS_TO_TRACK = 60;
+
+    public BlockEntityCostCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder();
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final MinecraftServerAccessor serverAccessor = (MinecraftServerAccessor) context.getSource().getServer();
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Block Entity Tick Cost (1m)" : "   Block Entity Tick Cost (1m)",
+            CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n===============================");
+
+        EntityCostCommand.appendTickCostOutput(outputBuilder, serverAccessor.getBlockEntityCostTracker(),
+            (rawId) -> Registries.BLOCK_ENTITY_TYPE.getId(Registries.BLOCK_ENTITY_TYPE.get(rawId)),
+            serverAccessor.getTickInfoTracker().getMSPT(SECONDS_TO_TRACK), "Ticked");
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+}
\ No newline at end of file
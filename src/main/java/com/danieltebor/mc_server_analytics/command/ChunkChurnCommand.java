@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.ChunkChurnTracker;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import net.minecraft.command.argument.DimensionArgumentType;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class ChunkChurnCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "chunk-churn";
+    public static final String[][] ARG_NAMES = {{"dimension"}, {"count"}};
+    public static final String DESCRIPTION = "Shows the regions of 32x32 chunks whose chunks were recently loaded, reloaded, and unloaded the most times per minute";
+
+    private static final int DEFAULT_REGIONS_SHOWN = 10;
+    private static final int MAX_REGIONS_SHOWN = 50;
+
+    public ChunkChurnCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder()
+            .then(CommandManager.argument(ARG_NAMES[0][0], DimensionArgumentType.dimension())
+                .executes(this::executeParameterizedWrapper)
+                .then(CommandManager.argument(ARG_NAMES[1][0], IntegerArgumentType.integer(1, MAX_REGIONS_SHOWN))
+                .executes((context) -> executeWrapper(context, this::executeWithCount))));
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendOutput(context, buildOutput(context.getSource().getServer(), null, DEFAULT_REGIONS_SHOWN, isServerConsoleOutput),
+            isServerConsoleOutput);
+        return 1;
+    }
+
+    @Override
+    protected int executeParameterized(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[0][0]);
+
+        sendOutput(context, buildOutput(context.getSource().getServer(), world, DEFAULT_REGIONS_SHOWN, isServerConsoleOutput),
+            isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeWithCount(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[0][0]);
+        final int count = IntegerArgumentType.getInteger(context, ARG_NAMES[1][0]);
+
+        sendOutput(context, buildOutput(context.getSource().getServer(), world, count, isServerConsoleOutput),
+            isServerConsoleOutput);
+        return 1;
+    }
+
+    private String buildOutput(final MinecraftServer server, final ServerWorld dimArgument, final int count, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Chunk Churn (per minute)" : "     Chunk Churn (per minute)", CommandOutputBuilder.Color.AQUA);
+        if (dimArgument != null) {
+            outputBuilder.append(" - ");
+            outputBuilder.append(formatDimensionName(outputBuilder, dimArgument), CommandOutputBuilder.Color.AQUA);
+        }
+        outputBuilder.append("\n==============================");
+
+        // Each dimension's top regions are candidates for the overall top regions.
+        final List<ChurningRegion> regions = new ArrayList<>();
+        server.getWorlds().forEach((world) -> {
+            if (dimArgument != null && world != dimArgument) {
+                return;
+            }
+
+            final ChunkChurnTracker chunkChurnTracker = ((ServerWorldAccessor) world).getChunkChurnTracker();
+            for (long regionPos : chunkChurnTracker.getTopRegions(count)) {
+                regions.add(new ChurningRegion(world, chunkChurnTracker, regionPos));
+            }
+        });
+        regions.sort(Comparator.comparingDouble((ChurningRegion region) -> region.churnPerMinute).reversed());
+
+        if (regions.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("None Recorded", CommandOutputBuilder.Color.DARK_AQUA);
+        }
+
+        for (int i = 0; i < Math.min(regions.size(), count); i++) {
+            final ChurningRegion region = regions.get(i);
+            final int regionX = ChunkPos.getPackedX(region.regionPos);
+            final int regionZ = ChunkPos.getPackedZ(region.regionPos);
+
+            outputBuilder.append("\n");
+            if (dimArgument == null) {
+                outputBuilder.append(formatDimensionName(outputBuilder, region.world), CommandOutputBuilder.Color.GOLD);
+                outputBuilder.append(" ");
+            }
+            outputBuilder.append("r." + regionX + "." + regionZ, CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(" (x ");
+            outputBuilder.append((regionX << 9) + 256, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(", z ");
+            outputBuilder.append((regionZ << 9) + 256, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(")\n| ");
+
+            final ChunkChurnTracker.Event[] events = ChunkChurnTracker.Event.values();
+            for (int j = 0; j < events.length; j++) {
+                outputBuilder.append(events[j].getName(), j % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                if (events[j] == ChunkChurnTracker.Event.RELOADS) {
+                    outputBuilder.rateByLowerBoundAndAppend(region.tracker.getEventsPerMinute(region.regionPos, events[j]), 5, 20, 60, false);
+                } else {
+                    outputBuilder.append(region.tracker.getEventsPerMinute(region.regionPos, events[j]), true, CommandOutputBuilder.Color.BLUE);
+                }
+                if (j != events.length - 1) {
+                    outputBuilder.append(" | ");
+                }
+            }
+        }
+
+        return outputBuilder.toString();
+    }
+
+    private static final class ChurningRegion {
+        private final ServerWorld world;
+        private final ChunkChurnTracker tracker;
+        private final long regionPos;
+        private final float churnPerMinute;
+
+        private ChurningRegion(final ServerWorld world, final ChunkChurnTracker tracker, final long regionPos) {
+            this.world = world;
+            this.tracker = tracker;
+            this.regionPos = regionPos;
+            this.churnPerMinute = tracker.getChurnPerMinute(regionPos);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.ChunkHotspotTracker;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import net.minecraft.command.argument.DimensionArgumentType;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class ChunkHotspotsCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "chunk-hotspots";
+    public static final String[][] ARG_NAMES = {{"dimension"}, {"count"}};
+    public static final String DESCRIPTION = "Shows the chunks whose entities, block entities, and random ticks recently took the most tick time";
+
+    private static final int DEFAULT_CHUNKS_SHOWN = 10;
+    private static final int MAX_CHUNKS_SHOWN = 50;
+
+    public ChunkHotspotsCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder()
+            .then(CommandManager.argument(ARG_NAMES[0][0], DimensionArgumentType.dimension())
+                .executes(this::executeParameterizedWrapper)
+                .then(CommandManager.argument(ARG_NAMES[1][0], IntegerArgumentType.integer(1, MAX_CHUNKS_SHOWN))
+                .executes((context) -> executeWrapper(context, this::executeWithCount))));
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendOutput(context, buildOutput(context.getSource().getServer(), null, DEFAULT_CHUNKS_SHOWN, isServerConsoleOutput),
+            isServerConsoleOutput);
+        return 1;
+    }
+
+    @Override
+    protected int executeParameterized(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[0][0]);
+
+        sendOutput(context, buildOutput(context.getSource().getServer(), world, DEFAULT_CHUNKS_SHOWN, isServerConsoleOutput),
+            isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeWithCount(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[0][0]);
+        final int count = IntegerArgumentType.getInteger(context, ARG_NAMES[1][0]);
+
+        sendOutput(context, buildOutput(context.getSource().getServer(), world, count, isServerConsoleOutput),
+            isServerConsoleOutput);
+        return 1;
+    }
+
+    private String buildOutput(final MinecraftServer server, final ServerWorld dimArgument, final int count, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Chunk Hotspots" : "     Chunk Hotspots", CommandOutputBuilder.Color.AQUA);
+        if (dimArgument != null) {
+            outputBuilder.append(" - ");
+            outputBuilder.append(formatDimensionName(outputBuilder, dimArgument), CommandOutputBuilder.Color.AQUA);
+        }
+        outputBuilder.append("\n=====================");
+
+        // Each dimension's top chunks are candidates for the overall top chunks.
+        final List<Hotspot> hotspots = new ArrayList<>();
+        server.getWorlds().forEach((world) -> {
+            if (dimArgument != null && world != dimArgument) {
+                return;
+            }
+
+            final ChunkHotspotTracker chunkHotspotTracker = ((ServerWorldAccessor) world).getChunkHotspotTracker();
+            for (long chunkPos : chunkHotspotTracker.getTopChunks(count)) {
+                hotspots.add(new Hotspot(world, chunkHotspotTracker, chunkPos));
+            }
+        });
+        hotspots.sort(Comparator.comparingDouble((Hotspot hotspot) -> hotspot.mspt).reversed());
+
+        if (hotspots.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("None Recorded", CommandOutputBuilder.Color.DARK_AQUA);
+        }
+
+        for (int i = 0; i < Math.min(hotspots.size(), count); i++) {
+            final Hotspot hotspot = hotspots.get(i);
+            final int chunkX = ChunkPos.getPackedX(hotspot.chunkPos);
+            final int chunkZ = ChunkPos.getPackedZ(hotspot.chunkPos);
+
+            outputBuilder.append("\n");
+            if (dimArgument == null) {
+                outputBuilder.append(formatDimensionName(outputBuilder, hotspot.world), CommandOutputBuilder.Color.GOLD);
+                outputBuilder.append(" ");
+            }
+            outputBuilder.append("[" + chunkX + ", " + chunkZ + "]", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(" (x ");
+            outputBuilder.append((chunkX << 4) + 8, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(", z ");
+            outputBuilder.append((chunkZ << 4) + 8, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("): ");
+            outputBuilder.rateByLowerBoundAndAppend(hotspot.mspt, 1, 5, 15, false);
+            outputBuilder.append("ms/t\n| ");
+
+            final ChunkHotspotTracker.Source[] sources = ChunkHotspotTracker.Source.values();
+            for (int j = 0; j < sources.length; j++) {
+                outputBuilder.append(sources[j].getName(), j % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                outputBuilder.append(hotspot.tracker.getMSPT(hotspot.chunkPos, sources[j]), true, CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append("ms");
+                if (j != sources.length - 1) {
+                    outputBuilder.append(" | ");
+                }
+            }
+        }
+
+        return outputBuilder.toString();
+    }
+
+    private static final class Hotspot {
+        private final ServerWorld world;
+        private final ChunkHotspotTracker tracker;
+        private final long chunkPos;
+        private final float mspt;
+
+        private Hotspot(final ServerWorld world, final ChunkHotspotTracker tracker, final long chunkPos) {
+            this.world = world;
+            this.tracker = tracker;
+            this.chunkPos = chunkPos;
+            this.mspt = tracker.getMSPT(chunkPos);
+        }
+    }
+}
\ No newline at end of file
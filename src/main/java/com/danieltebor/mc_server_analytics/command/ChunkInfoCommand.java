@@ -22,17 +22,28 @@
 
 package com.danieltebor.mc_server_analytics.command;
 
-import com.danieltebor.mc_server_analytics.accessor.ServerChunkManagerAccessor;
+import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.ChunkCountTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLoadAttributionTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLoadTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLevelSnapshot;
 import com.danieltebor.mc_server_analytics.util.LoggerUtil;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
 import net.minecraft.command.argument.DimensionArgumentType;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
-import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ServerWorld;
 
 /**
  * @author Daniel Tebor
@@ -40,8 +51,10 @@ import net.minecraft.world.chunk.WorldChunk;
 public final class ChunkInfoCommand extends MCServerAnalyticsCommand {
 
     public static final String NAME = "chunk-info";
-    public static final String[][] ARG_NAMES = {{"dimension"}};
-    public static final String DESCRIPTION = "Shows loaded chunks";
+    public static final String[][] ARG_NAMES = {{"dimension", "levels", "players"}, {"dimension"}};
+    public static final String DESCRIPTION = "Shows loaded, ticking, and force-loaded chunks, how many chunks are at each level, status, and ticket type, or how many chunks each player caused to be loaded or generated";
+
+    private static final int[] PLAYER_WINDOWS_MINUTES = {10, ChunkLoadAttributionTracker.MAX_MINUTES_TO_TRACK};
 
     ChunkInfoCommand() {
         super(NAME, ARG_NAMES, DESCRIPTION);
@@ -51,7 +64,13 @@ public final class ChunkInfoCommand extends MCServerAnalyticsCommand {
     protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
         return getDefaultArgumentBuilder()
             .then(CommandManager.argument(ARG_NAMES[0][0], DimensionArgumentType.dimension())
-            .executes(this::executeParameterizedWrapper));
+            .executes(this::executeParameterizedWrapper))
+            .then(CommandManager.literal(ARG_NAMES[0][1])
+                .executes((context) -> executeWrapper(context, this::executeLevels))
+                .then(CommandManager.argument(ARG_NAMES[1][0], DimensionArgumentType.dimension())
+                .executes((context) -> executeWrapper(context, this::executeDimensionLevels))))
+            .then(CommandManager.literal(ARG_NAMES[0][2])
+            .executes((context) -> executeWrapper(context, this::executePlayers)));
     }
 
     @Override
@@ -78,8 +97,144 @@ public final class ChunkInfoCommand extends MCServerAnalyticsCommand {
         return 1;
     }
 
+    private int executeLevels(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendLevelsOutput(context, null, isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeDimensionLevels(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        sendLevelsOutput(context, DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[1][0]), isServerConsoleOutput);
+        return 1;
+    }
+
+    private void sendLevelsOutput(final CommandContext<ServerCommandSource> context, final ServerWorld dimArgument, final boolean isServerConsoleOutput) {
+        final MinecraftServer server = context.getSource().getServer();
+        final List<ServerWorld> worlds = new ArrayList<>();
+        final List<ChunkLevelSnapshot> snapshots = new ArrayList<>();
+
+        server.getWorlds().forEach((world) -> {
+            if (dimArgument == null || world == dimArgument) {
+                worlds.add(world);
+                snapshots.add(ChunkLevelSnapshot.take(world));
+            }
+        });
+
+        // Only the snapshots are taken on the server thread.
+        sendOutputOffThread(context, () -> buildLevelsOutput(worlds, snapshots, isServerConsoleOutput), isServerConsoleOutput);
+    }
+
+    private String buildLevelsOutput(final List<ServerWorld> worlds, final List<ChunkLevelSnapshot> snapshots, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Chunk Levels" : "      Chunk Levels", CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n=================");
+
+        for (int i = 0; i < worlds.size(); i++) {
+            final ChunkLevelSnapshot.Summary summary = snapshots.get(i).summarize();
+
+            outputBuilder.append("\n");
+            outputBuilder.append(formatDimensionName(outputBuilder, worlds.get(i)), CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(" | ");
+            outputBuilder.append("Holders", CommandOutputBuilder.Color.DARK_AQUA);
+            outputBuilder.append(": ");
+            outputBuilder.append(summary.getHolderCount(), CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(" | ");
+            outputBuilder.append("Forced", CommandOutputBuilder.Color.DARK_AQUA);
+            outputBuilder.append(": ");
+            outputBuilder.append(summary.getForcedChunkCount(), CommandOutputBuilder.Color.BLUE);
+
+            outputBuilder.append("\n| ");
+            outputBuilder.append("Levels", CommandOutputBuilder.Color.LIGHT_PURPLE);
+            outputBuilder.append(":");
+            final ChunkHolder.LevelType[] levelTypes = ChunkHolder.LevelType.values();
+            // From the most to the least loaded level.
+            for (int j = levelTypes.length - 1; j >= 0; j--) {
+                outputBuilder.append(" ");
+                outputBuilder.append(levelTypes[j] == ChunkHolder.LevelType.TICKING
+                    ? "Block Ticking" : outputBuilder.formatSnakeCase(levelTypes[j].name().toLowerCase()));
+                outputBuilder.append(" ");
+                outputBuilder.append(summary.getLevelTypeCount(levelTypes[j]), CommandOutputBuilder.Color.BLUE);
+            }
+
+            appendCountsSegment(outputBuilder, "Statuses", CommandOutputBuilder.Color.DARK_PURPLE, summary.getStatusCounts());
+            appendCountsSegment(outputBuilder, "Tickets (" + summary.getTicketCount() + ")",
+                CommandOutputBuilder.Color.LIGHT_PURPLE, summary.getTicketCounts());
+        }
+
+        return outputBuilder.toString();
+    }
+
+    private void appendCountsSegment(final CommandOutputBuilder outputBuilder, final String label,
+                                     final CommandOutputBuilder.Color color, final Map<String, Integer> counts) {
+        outputBuilder.append("\n| ");
+        outputBuilder.append(label, color);
+        outputBuilder.append(":");
+
+        if (counts.isEmpty()) {
+            outputBuilder.append(" None");
+            return;
+        }
+
+        counts.forEach((name, count) -> {
+            outputBuilder.append(" ");
+            outputBuilder.formatSnakeCaseAndAppend(name);
+            outputBuilder.append(" ");
+            outputBuilder.append(count, CommandOutputBuilder.Color.BLUE);
+        });
+    }
+
+    private int executePlayers(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Chunk Loads by Player (10m | 1h)" : "    Chunk Loads by Player (10m | 1h)", CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n===============================");
+
+        final List<ChunkLoadAttributionTracker.Counts> countsList = MCServerAnalytics.getInstance().getChunkLoadAttributionTracker().getCounts();
+        final ChunkLoadTracker.Source[] sources = ChunkLoadTracker.Source.values();
+        final long[] sourceTotals = new long[sources.length];
+        for (ChunkLoadAttributionTracker.Counts counts : countsList) {
+            for (int i = 0; i < sources.length; i++) {
+                sourceTotals[i] += counts.getCount(sources[i], ChunkLoadAttributionTracker.MAX_MINUTES_TO_TRACK);
+            }
+        }
+
+        // Players who generated the most come first, followed by spawn, forced, and other chunks in a fixed order.
+        countsList.sort(Comparator.comparing((ChunkLoadAttributionTracker.Counts counts) -> !counts.isPlayer())
+            .thenComparingLong((counts) -> counts.isPlayer()
+                ? -counts.getCount(ChunkLoadTracker.Source.GENERATED, ChunkLoadAttributionTracker.MAX_MINUTES_TO_TRACK) : 0)
+            .thenComparingLong((counts) -> counts.isPlayer()
+                ? -counts.getCount(ChunkLoadTracker.Source.LOADED, ChunkLoadAttributionTracker.MAX_MINUTES_TO_TRACK) : 0));
+
+        for (ChunkLoadAttributionTracker.Counts counts : countsList) {
+            outputBuilder.append("\n");
+            outputBuilder.append(counts.getName(), CommandOutputBuilder.Color.GOLD);
+
+            for (int i = 0; i < sources.length; i++) {
+                outputBuilder.append("\n| ");
+                outputBuilder.append(sources[i].getName(), i % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                for (int j = 0; j < PLAYER_WINDOWS_MINUTES.length; j++) {
+                    outputBuilder.append(counts.getCount(sources[i], PLAYER_WINDOWS_MINUTES[j]), CommandOutputBuilder.Color.BLUE);
+                    if (j != PLAYER_WINDOWS_MINUTES.length - 1) {
+                        outputBuilder.append(" | ");
+                    }
+                }
+
+                if (sourceTotals[i] != 0) {
+                    outputBuilder.append(" (");
+                    outputBuilder.append(100.0 * counts.getCount(sources[i], ChunkLoadAttributionTracker.MAX_MINUTES_TO_TRACK) / sourceTotals[i],
+                        true, CommandOutputBuilder.Color.BLUE);
+                    outputBuilder.append("% of 1h)");
+                }
+            }
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
     private String buildOutput(final MinecraftServer server, final String dimArgument, final boolean isServerConsoleOutput) {
-        final int[] chunksLoadedSums = {0, 0};
+        final int[] chunksLoadedSums = {0, 0, 0, 0};
         final int[] dimsWithLoadedChunksCount = {0};
         final CommandOutputBuilder outputBuilder = new CommandOutputBuilder(isServerConsoleOutput);
 
@@ -109,28 +264,24 @@ public final class ChunkInfoCommand extends MCServerAnalyticsCommand {
                 LoggerUtil.sendInfo("An unexpected error occured formatting dimension name for " + NAME + " command. Using unformatted version", true);
             }
 
-            final int[] loadedChunkInfo = {0, 0};
-            ((ServerChunkManagerAccessor) world.getChunkManager()).getChunkHolderEntryIterator().forEach((chunkHolder) -> {
-                WorldChunk worldChunk = chunkHolder.getWorldChunk();
-                if (worldChunk != null) {
-                    loadedChunkInfo[0]++;
-                    loadedChunkInfo[1] = worldChunk.countVerticalSections();
-                }
-            });
-            if (loadedChunkInfo[1] != 0) {
-                loadedChunkInfo[0] = loadedChunkInfo[0] / loadedChunkInfo[1];
-            }
+            final ChunkCountTracker chunkCountTracker = ((ServerWorldAccessor) world).getChunkCountTracker();
+            final int loadedChunkCount = chunkCountTracker.getLoadedChunkCount();
+            final int tickingChunkCount = chunkCountTracker.getTickingChunkCount();
+            final int entityTickingChunkCount = chunkCountTracker.getEntityTickingChunkCount();
             final int forceLoadedChunkCount = world.getForcedChunks().size();
 
-            chunksLoadedSums[0] += loadedChunkInfo[0];
-            chunksLoadedSums[1] += forceLoadedChunkCount;
+            chunksLoadedSums[0] += loadedChunkCount;
+            chunksLoadedSums[1] += tickingChunkCount;
+            chunksLoadedSums[2] += entityTickingChunkCount;
+            chunksLoadedSums[3] += forceLoadedChunkCount;
 
             if (dimArgument == null) {
                 outputBuilder.append("\n");
             }
 
-            if (dimArgument != null || loadedChunkInfo[0] + forceLoadedChunkCount != 0) {
-                appendChunksLoadedSegment(outputBuilder, dimName, loadedChunkInfo[0], forceLoadedChunkCount);
+            if (dimArgument != null || loadedChunkCount + forceLoadedChunkCount != 0) {
+                appendChunksLoadedSegment(outputBuilder, dimName, loadedChunkCount, tickingChunkCount, entityTickingChunkCount,
+                    forceLoadedChunkCount);
                 dimsWithLoadedChunksCount[0] += 1;
             } else {
                 outputBuilder.append(dimName, CommandOutputBuilder.Color.GOLD);
@@ -141,7 +292,8 @@ public final class ChunkInfoCommand extends MCServerAnalyticsCommand {
         
         if (dimArgument == null && dimsWithLoadedChunksCount[0] > 1) {
             outputBuilder.append("\n");
-            appendChunksLoadedSegment(outputBuilder, "All Dimensions", chunksLoadedSums[0], chunksLoadedSums[1]);
+            appendChunksLoadedSegment(outputBuilder, "All Dimensions", chunksLoadedSums[0], chunksLoadedSums[1],
+                chunksLoadedSums[2], chunksLoadedSums[3]);
         }
 
         return outputBuilder.toString();
@@ -150,6 +302,8 @@ public final class ChunkInfoCommand extends MCServerAnalyticsCommand {
     private void appendChunksLoadedSegment(final CommandOutputBuilder outputBuilder,
                                            final String label,
                                            final int loadedChunkCount,
+                                           final int tickingChunkCount,
+                                           final int entityTickingChunkCount,
                                            final int forceLoadedChunkCount) {
         outputBuilder.append(label, CommandOutputBuilder.Color.GOLD);
         outputBuilder.append("\n| ");
@@ -159,7 +313,17 @@ public final class ChunkInfoCommand extends MCServerAnalyticsCommand {
         outputBuilder.append(loadedChunkCount, CommandOutputBuilder.Color.BLUE);
         outputBuilder.append("\n| ");
 
-        outputBuilder.append("Force-loaded", CommandOutputBuilder.Color.DARK_PURPLE);
+        outputBuilder.append("Block Ticking", CommandOutputBuilder.Color.DARK_PURPLE);
+        outputBuilder.append(": ");
+        outputBuilder.append(tickingChunkCount, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append("\n| ");
+
+        outputBuilder.append("Entity Ticking", CommandOutputBuilder.Color.DARK_PURPLE);
+        outputBuilder.append(": ");
+        outputBuilder.append(entityTickingChunkCount, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append("\n| ");
+
+        outputBuilder.append("Force-loaded", CommandOutputBuilder.Color.LIGHT_PURPLE);
         outputBuilder.append(": ");
         outputBuilder.append(forceLoadedChunkCount, CommandOutputBuilder.Color.BLUE);
     }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLoadTracker;
+import com.danieltebor.mc_server_analytics.util.LogLinearHistogram;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import net.minecraft.command.argument.DimensionArgumentType;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class ChunkLoadsCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "chunk-loads";
+    public static final String[][] ARG_NAMES = {{"dimension"}};
+    public static final String DESCRIPTION = "Shows how many chunks were loaded from disk or generated per second over 1m and how long they took to fully load";
+
+    public ChunkLoadsCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder()
+            .then(CommandManager.argument(ARG_NAMES[0][0], DimensionArgumentType.dimension())
+            .executes(this::executeParameterizedWrapper));
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendOutput(context, buildOutput(context.getSource().getServer(), null, isServerConsoleOutput), isServerConsoleOutput);
+        return 1;
+    }
+
+    @Override
+    protected int executeParameterized(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[0][0]);
+
+        sendOutput(context, buildOutput(context.getSource().getServer(), world, isServerConsoleOutput), isServerConsoleOutput);
+        return 1;
+    }
+
+    private String buildOutput(final MinecraftServer server, final ServerWorld dimArgument, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Chunk Loads (1m)" : "     Chunk Loads (1m)", CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n=====================");
+
+        server.getWorlds().forEach((world) -> {
+            if (dimArgument != null && world != dimArgument) {
+                return;
+            }
+
+            final ChunkLoadTracker chunkLoadTracker = ((ServerWorldAccessor) world).getChunkLoadTracker();
+
+            outputBuilder.append("\n");
+            outputBuilder.append(formatDimensionName(outputBuilder, world), CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(" | ");
+            outputBuilder.append("Pending", CommandOutputBuilder.Color.DARK_AQUA);
+            outputBuilder.append(": ");
+            outputBuilder.append(chunkLoadTracker.getPendingChunkCount(), CommandOutputBuilder.Color.BLUE);
+
+            final ChunkLoadTracker.Source[] sources = ChunkLoadTracker.Source.values();
+            for (int i = 0; i < sources.length; i++) {
+                final LogLinearHistogram latencyHistogram = chunkLoadTracker.getLatencyHistogram(sources[i]);
+
+                outputBuilder.append("\n| ");
+                outputBuilder.append(sources[i].getName(), i % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                outputBuilder.append(chunkLoadTracker.getChunksPerSecond(sources[i]), true, CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append("/s");
+
+                if (latencyHistogram.getCount() == 0) {
+                    continue;
+                }
+
+                outputBuilder.append(" | p50: ");
+                outputBuilder.rateByLowerBoundAndAppend(latencyHistogram.getValueAtPercentile(50) / 1000000.0, 50, 200, 1000, false);
+                outputBuilder.append("ms | p99: ");
+                outputBuilder.rateByLowerBoundAndAppend(latencyHistogram.getValueAtPercentile(99) / 1000000.0, 50, 200, 1000, false);
+                outputBuilder.append("ms | Max: ");
+                outputBuilder.rateByLowerBoundAndAppend(latencyHistogram.getMaxValue() / 1000000.0, 50, 200, 1000, false);
+                outputBuilder.append("ms");
+            }
+        });
+
+        return outputBuilder.toString();
+    }
+}
\ No newline at end of file
@@ -45,15 +45,25 @@ public final class Commands {
         }
 
         final MCServerAnalyticsCommand[] commandsToRegister = {
+            new BlockEntityCostCommand(),
+            new ChunkChurnCommand(),
+            new ChunkHotspotsCommand(),
             new ChunkInfoCommand(),
+            new ChunkLoadsCommand(),
             new CPUCommand(),
+            new EntityCostCommand(),
             new EntityInfoCommand(),
             new HelpCommand(),
+            new HistoryCommand(),
+            new LagSpikesCommand(),
             new MEMCommand(),
             new MSPTCommand(),
             new PerformanceSummaryCommand(),
             new PingAvgCommand(),
             new PingCommand(),
+            new ProfilerCommand(),
+            new TaskQueueCommand(),
+            new TickBreakdownCommand(),
             new TPSCommand(),
             new WorldSizeCommand()
         };
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.tracker.TickCostTracker;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.minecraft.registry.Registries;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.util.Identifier;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class EntityCostCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "entity-cost";
+    public static final String[][] ARG_NAMES = {};
+    public static final String DESCRIPTION = "Shows the entity types that took the most tick time over 1m";
+
+    private static final int SECONDS_TO_TRACK = 60;
+    private static final int MAX_TYPES_SHOWN = 10;
+
+    public EntityCostCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder();
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final MinecraftServerAccessor serverAccessor = (MinecraftServerAccessor) context.getSource().getServer();
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Entity Tick Cost (1m)" : "   Entity Tick Cost (1m)",
+            CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n=========================");
+
+        appendTickCostOutput(outputBuilder, serverAccessor.getEntityCostTracker(),
+            (rawId) -> Registries.ENTITY_TYPE.getId(Registries.ENTITY_TYPE.get(rawId)),
+            serverAccessor.getTickInfoTracker().getMSPT(SECONDS_TO_TRACK), "Ticked");
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    /**
+     * Appends the keys of the tracker that took the most time over 1m, most expensive first.
+     */
+    protected static void appendTickCostOutput(final CommandOutputBuilder outputBuilder, final TickCostTracker costTracker,
+                                               final IntFunction<Identifier> keyIds, final float tickMSPT, final String countLabel) {
+        final long tickCount = costTracker.getTickCount(SECONDS_TO_TRACK);
+        final List<Integer> keys = IntStream.range(0, costTracker.getKeyCount())
+            .filter((key) -> costTracker.getTimeNS(key, SECONDS_TO_TRACK) > 0)
+            .boxed()
+            .sorted(Comparator.comparingLong((Integer key) -> costTracker.getTimeNS(key, SECONDS_TO_TRACK)).reversed())
+            .limit(MAX_TYPES_SHOWN)
+            .collect(Collectors.toList());
+
+        if (keys.isEmpty() || tickCount == 0) {
+            outputBuilder.append("\n");
+            outputBuilder.append("None Ticked", CommandOutputBuilder.Color.DARK_AQUA);
+            return;
+        }
+
+        for (int key : keys) {
+            final long timeNS = costTracker.getTimeNS(key, SECONDS_TO_TRACK);
+            final long invocationCount = costTracker.getInvocationCount(key, SECONDS_TO_TRACK);
+            final float msPerTick = timeNS / 1000000.0f / tickCount;
+
+            outputBuilder.append("\n");
+            outputBuilder.append(formatIdentifier(outputBuilder, keyIds.apply(key)), CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.rateByLowerBoundAndAppend(msPerTick, 1, 5, 15, false);
+            outputBuilder.append("ms/t (");
+            outputBuilder.append(tickMSPT > 0 ? (int) (msPerTick / tickMSPT * 100) : 0, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("% of tick)\n| ");
+
+            outputBuilder.append(countLabel, CommandOutputBuilder.Color.LIGHT_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.append((float) invocationCount / tickCount, true, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("/t | ");
+
+            outputBuilder.append("Avg", CommandOutputBuilder.Color.DARK_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.append(timeNS / 1000.0f / invocationCount, true, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("µs each");
+        }
+    }
+}
\ No newline at end of file
@@ -22,28 +22,40 @@
 
 package com.danieltebor.mc_server_analytics.command;
 
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.EntityCensusTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityClusterSnapshot;
+import com.danieltebor.mc_server_analytics.tracker.EntityPopulationTracker;
 import com.danieltebor.mc_server_analytics.util.LoggerUtil;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import net.minecraft.command.argument.DimensionArgumentType;
+import net.minecraft.registry.Registries;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
-import net.minecraft.util.TypeFilter;
-import net.minecraft.entity.Entity;
-import net.minecraft.entity.ItemEntity;
-import net.minecraft.entity.mob.MobEntity;
-import net.minecraft.entity.passive.PassiveEntity;
+import net.minecraft.server.world.ServerWorld;
 
 /**
  * @author Daniel Tebor
  */
 public class EntityInfoCommand extends MCServerAnalyticsCommand {
     public static final String NAME = "entity-info";
-    public static final String[][] ARG_NAMES = {{"dimension"}};
-    public static final String DESCRIPTION = "Shows number of entities";
+    public static final String[][] ARG_NAMES = {{"dimension", "types", "clusters", "trend"}, {"dimension"}};
+    public static final String DESCRIPTION = "Shows number of entities, number of entities of each type, the densest clusters of entities, or how entity counts changed over 5m, 15m, and 1h";
+
+    private static final int[] TREND_WINDOWS_MINUTES = {5, 15, EntityPopulationTracker.MAX_MINUTES_TO_TRACK};
+    private static final String[] TREND_WINDOW_LABELS = {"5m", "15m", "1h"};
+
+    private static final int CLUSTERS_SHOWN = 10;
 
     public EntityInfoCommand() {
         super(NAME, ARG_NAMES, DESCRIPTION);
@@ -53,7 +65,19 @@ public class EntityInfoCommand extends MCServerAnalyticsCommand {
     protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
         return getDefaultArgumentBuilder()
             .then(CommandManager.argument(ARG_NAMES[0][0], DimensionArgumentType.dimension())
-            .executes(this::executeParameterizedWrapper));
+            .executes(this::executeParameterizedWrapper))
+            .then(CommandManager.literal(ARG_NAMES[0][1])
+                .executes((context) -> executeWrapper(context, this::executeTypes))
+                .then(CommandManager.argument(ARG_NAMES[1][0], DimensionArgumentType.dimension())
+                .executes((context) -> executeWrapper(context, this::executeDimensionTypes))))
+            .then(CommandManager.literal(ARG_NAMES[0][2])
+                .executes((context) -> executeWrapper(context, this::executeClusters))
+                .then(CommandManager.argument(ARG_NAMES[1][0], DimensionArgumentType.dimension())
+                .executes((context) -> executeWrapper(context, this::executeDimensionClusters))))
+            .then(CommandManager.literal(ARG_NAMES[0][3])
+                .executes((context) -> executeWrapper(context, this::executeTrend))
+                .then(CommandManager.argument(ARG_NAMES[1][0], DimensionArgumentType.dimension())
+                .executes((context) -> executeWrapper(context, this::executeDimensionTrend))));
     }
 
     @Override
@@ -104,11 +128,11 @@ public class EntityInfoCommand extends MCServerAnalyticsCommand {
             } catch(Exception e) {
                 LoggerUtil.sendInfo("An unexpected error occured formatting dimension name for " + NAME + " command. Using unformatted version", true);
             }
-            final int passiveEntitiesCount = world.getEntitiesByType(TypeFilter.instanceOf(PassiveEntity.class), entity -> true).size();
-            final int mobEntitiesCount = world.getEntitiesByType(TypeFilter.instanceOf(MobEntity.class), entity -> true).size();
-            final int itemEntitiesCount = world.getEntitiesByType(TypeFilter.instanceOf(ItemEntity.class), entity -> true).size();
-            final int otherEntitiesCount = world.getEntitiesByType(TypeFilter.instanceOf(Entity.class), 
-                entity -> !(entity instanceof PassiveEntity || entity instanceof MobEntity || entity instanceof ItemEntity)).size();
+            final EntityCensusTracker entityCensusTracker = ((ServerWorldAccessor) world).getEntityCensusTracker();
+            final int passiveEntitiesCount = entityCensusTracker.getCount(EntityCensusTracker.Category.PASSIVE);
+            final int mobEntitiesCount = entityCensusTracker.getCount(EntityCensusTracker.Category.MOBS);
+            final int itemEntitiesCount = entityCensusTracker.getCount(EntityCensusTracker.Category.ITEMS);
+            final int otherEntitiesCount = entityCensusTracker.getCount(EntityCensusTracker.Category.OTHER);
 
             entitySums[0] += passiveEntitiesCount;
             entitySums[1] += mobEntitiesCount;
@@ -139,6 +163,210 @@ public class EntityInfoCommand extends MCServerAnalyticsCommand {
         return outputBuilder.toString();
     }
 
+    private int executeTypes(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendOutput(context, buildTypesOutput(context.getSource().getServer(), null, isServerConsoleOutput), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeDimensionTypes(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[1][0]);
+
+        sendOutput(context, buildTypesOutput(context.getSource().getServer(), world, isServerConsoleOutput), isServerConsoleOutput);
+        return 1;
+    }
+
+    private String buildTypesOutput(final MinecraftServer server, final ServerWorld dimArgument, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Entity Types" : "      Entity Types", CommandOutputBuilder.Color.AQUA);
+        if (dimArgument != null) {
+            outputBuilder.append(" - ");
+            outputBuilder.append(formatDimensionName(outputBuilder, dimArgument), CommandOutputBuilder.Color.AQUA);
+        }
+        outputBuilder.append("\n=================");
+
+        final int[] typeCounts = new int[Registries.ENTITY_TYPE.size()];
+        final int[] entityCount = {0};
+        server.getWorlds().forEach((world) -> {
+            if (dimArgument != null && world != dimArgument) {
+                return;
+            }
+
+            final EntityCensusTracker entityCensusTracker = ((ServerWorldAccessor) world).getEntityCensusTracker();
+            for (int rawId = 0; rawId < Math.min(typeCounts.length, entityCensusTracker.getKeyCount()); rawId++) {
+                typeCounts[rawId] += entityCensusTracker.getTypeCount(rawId);
+            }
+            entityCount[0] += entityCensusTracker.getEntityCount();
+        });
+
+        final List<Integer> rawIds = IntStream.range(0, typeCounts.length)
+            .filter((rawId) -> typeCounts[rawId] > 0)
+            .boxed()
+            .sorted(Comparator.comparingInt((Integer rawId) -> typeCounts[rawId]).reversed())
+            .collect(Collectors.toList());
+
+        if (rawIds.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("No Entities", CommandOutputBuilder.Color.DARK_AQUA);
+        }
+
+        for (int rawId : rawIds) {
+            outputBuilder.append("\n");
+            outputBuilder.append(formatIdentifier(outputBuilder, Registries.ENTITY_TYPE.getId(Registries.ENTITY_TYPE.get(rawId))),
+                CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.append(typeCounts[rawId], CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(" (");
+            outputBuilder.append(typeCounts[rawId] * 100 / entityCount[0], CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("%)");
+        }
+
+        return outputBuilder.toString();
+    }
+
+    private int executeClusters(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendClustersOutput(context, null, isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeDimensionClusters(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        sendClustersOutput(context, DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[1][0]), isServerConsoleOutput);
+        return 1;
+    }
+
+    private void sendClustersOutput(final CommandContext<ServerCommandSource> context, final ServerWorld dimArgument, final boolean isServerConsoleOutput) {
+        final MinecraftServer server = context.getSource().getServer();
+        final List<ServerWorld> worlds = new ArrayList<>();
+        final List<EntityClusterSnapshot> snapshots = new ArrayList<>();
+
+        server.getWorlds().forEach((world) -> {
+            if (dimArgument == null || world == dimArgument) {
+                worlds.add(world);
+                snapshots.add(EntityClusterSnapshot.take(world));
+            }
+        });
+
+        // Only the snapshots are taken on the server thread.
+        sendOutputOffThread(context, () -> buildClustersOutput(worlds, snapshots, dimArgument, isServerConsoleOutput),
+            isServerConsoleOutput);
+    }
+
+    private String buildClustersOutput(final List<ServerWorld> worlds, final List<EntityClusterSnapshot> snapshots,
+                                       final ServerWorld dimArgument, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Entity Clusters (3x3 chunks)" : "  Entity Clusters (3x3 chunks)", CommandOutputBuilder.Color.AQUA);
+        if (dimArgument != null) {
+            outputBuilder.append(" - ");
+            outputBuilder.append(formatDimensionName(outputBuilder, dimArgument), CommandOutputBuilder.Color.AQUA);
+        }
+        outputBuilder.append("\n=============================");
+
+        // Each dimension's densest clusters are candidates for the overall densest clusters.
+        final List<ServerWorld> clusterWorlds = new ArrayList<>();
+        final List<EntityClusterSnapshot.Cluster> clusters = new ArrayList<>();
+        for (int i = 0; i < worlds.size(); i++) {
+            for (EntityClusterSnapshot.Cluster cluster : snapshots.get(i).findClusters(CLUSTERS_SHOWN)) {
+                clusterWorlds.add(worlds.get(i));
+                clusters.add(cluster);
+            }
+        }
+        final List<Integer> order = IntStream.range(0, clusters.size())
+            .boxed()
+            .sorted(Comparator.comparingInt((Integer i) -> clusters.get(i).getEntityCount()).reversed())
+            .limit(CLUSTERS_SHOWN)
+            .collect(Collectors.toList());
+
+        if (order.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("No Entities", CommandOutputBuilder.Color.DARK_AQUA);
+        }
+
+        for (int i : order) {
+            final EntityClusterSnapshot.Cluster cluster = clusters.get(i);
+
+            outputBuilder.append("\n");
+            if (dimArgument == null) {
+                outputBuilder.append(formatDimensionName(outputBuilder, clusterWorlds.get(i)), CommandOutputBuilder.Color.GOLD);
+                outputBuilder.append(" ");
+            }
+            outputBuilder.append("[" + cluster.getChunkX() + ", " + cluster.getChunkZ() + "]", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(" (x ");
+            outputBuilder.append(cluster.getBlockX(), CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(", z ");
+            outputBuilder.append(cluster.getBlockZ(), CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("): ");
+            outputBuilder.rateByLowerBoundAndAppend(cluster.getEntityCount(), 100, 500, 2000, true);
+            outputBuilder.append(" entities\n| ");
+
+            final int[] topRawIds = cluster.getTopRawIds();
+            for (int j = 0; j < topRawIds.length; j++) {
+                outputBuilder.append(formatIdentifier(outputBuilder, Registries.ENTITY_TYPE.getId(Registries.ENTITY_TYPE.get(topRawIds[j]))),
+                    j % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                outputBuilder.append(cluster.getTopTypeCounts()[j], CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append(" (");
+                outputBuilder.append(cluster.getTopTypeCounts()[j] * 100 / cluster.getEntityCount(), CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append("%)");
+                if (j != topRawIds.length - 1) {
+                    outputBuilder.append(" | ");
+                }
+            }
+        }
+
+        return outputBuilder.toString();
+    }
+
+    private int executeTrend(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendOutput(context, buildTrendOutput(context.getSource().getServer(), null, isServerConsoleOutput), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeDimensionTrend(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[1][0]);
+
+        sendOutput(context, buildTrendOutput(context.getSource().getServer(), world, isServerConsoleOutput), isServerConsoleOutput);
+        return 1;
+    }
+
+    private String buildTrendOutput(final MinecraftServer server, final ServerWorld dimArgument, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Entity Trend" : "      Entity Trend", CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n=================");
+
+        server.getWorlds().forEach((world) -> {
+            if (dimArgument != null && world != dimArgument) {
+                return;
+            }
+
+            final EntityPopulationTracker entityPopulationTracker = ((ServerWorldAccessor) world).getEntityPopulationTracker();
+
+            outputBuilder.append("\n");
+            outputBuilder.append(formatDimensionName(outputBuilder, world), CommandOutputBuilder.Color.GOLD);
+
+            final EntityCensusTracker.Category[] categories = EntityCensusTracker.Category.values();
+            for (int i = 0; i < categories.length; i++) {
+                outputBuilder.append("\n| ");
+                outputBuilder.append(categories[i].getName(), i % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                outputBuilder.append(entityPopulationTracker.getCount(categories[i]), CommandOutputBuilder.Color.BLUE);
+
+                for (int j = 0; j < TREND_WINDOWS_MINUTES.length; j++) {
+                    final int growth = entityPopulationTracker.getGrowth(categories[i], TREND_WINDOWS_MINUTES[j]);
+                    outputBuilder.append(" | " + TREND_WINDOW_LABELS[j] + ": ");
+                    outputBuilder.append(growth != Integer.MIN_VALUE ? String.format("%+d", growth) : "-", CommandOutputBuilder.Color.BLUE);
+                }
+
+                outputBuilder.append(" | Growth: ");
+                outputBuilder.append(String.format("%+.1f", entityPopulationTracker.getGrowthPerMinute(categories[i])), CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append("/min");
+            }
+        });
+
+        return outputBuilder.toString();
+    }
+
     private void appendEntitiesSegment(final CommandOutputBuilder outputBuilder,
                                        final String label,
                                        final int passiveEntityCount,
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.tracker.HistoryTracker;
+import com.danieltebor.mc_server_analytics.util.DurationUtil;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import java.util.Arrays;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class HistoryCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "history";
+    public static final String[][] ARG_NAMES = {
+        Arrays.stream(HistoryTracker.Metric.values()).map(HistoryTracker.Metric::getName).toArray(String[]::new),
+        {"range"}
+    };
+    public static final String DESCRIPTION = "Shows the min, average, and max of a recorded metric over a range like 30m, 6h, or 7d, which persist across restarts";
+
+    private static final long DEFAULT_RANGE_SECONDS = 60 * 60;
+    private static final int BUCKET_COUNT = 12;
+
+    public HistoryCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        final LiteralArgumentBuilder<ServerCommandSource> argumentBuilder = getDefaultArgumentBuilder();
+
+        for (HistoryTracker.Metric metric : HistoryTracker.Metric.values()) {
+            argumentBuilder.then(CommandManager.literal(metric.getName())
+                .executes((context) -> executeWrapper(context, (metricContext, isServerConsoleOutput) ->
+                    executeMetric(metricContext, metric, DEFAULT_RANGE_SECONDS, isServerConsoleOutput)))
+                .then(CommandManager.argument(ARG_NAMES[1][0], StringArgumentType.word())
+                .executes((context) -> executeWrapper(context, (metricContext, isServerConsoleOutput) ->
+                    executeMetric(metricContext, metric,
+                        DurationUtil.parseSeconds(StringArgumentType.getString(metricContext, ARG_NAMES[1][0])),
+                        isServerConsoleOutput)))));
+        }
+
+        return argumentBuilder;
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        final String title = "History - Last " + DurationUtil.format(DEFAULT_RANGE_SECONDS);
+        outputBuilder.append(isServerConsoleOutput ? title : "  " + title, CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n========================");
+
+        for (HistoryTracker.Metric metric : HistoryTracker.Metric.values()) {
+            final HistoryTracker.Summary summary = summarizeHistory(context, metric, DEFAULT_RANGE_SECONDS, 1);
+            if (summary == null) {
+                return 0;
+            }
+
+            outputBuilder.append("\n");
+            outputBuilder.append(metric.getLabel(), CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            appendSummarySegment(outputBuilder, summary);
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeMetric(final CommandContext<ServerCommandSource> context, final HistoryTracker.Metric metric,
+        final long rangeSeconds, final boolean isServerConsoleOutput) {
+        final HistoryTracker.Summary summary = summarizeHistory(context, metric, rangeSeconds, BUCKET_COUNT);
+        if (summary == null) {
+            return 0;
+        }
+        final long clampedRangeSeconds = summary.getRangeSeconds();
+
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        final String title = metric.getLabel() + " - Last " + DurationUtil.format(clampedRangeSeconds);
+        outputBuilder.append(isServerConsoleOutput ? title : "  " + title, CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n========================\n");
+        appendSummarySegment(outputBuilder, summary);
+
+        for (int i = 0; i < summary.getBucketCount(); i++) {
+            final float bucketMean = summary.getBucketMean(i);
+
+            outputBuilder.append("\n");
+            outputBuilder.append("-" + DurationUtil.format(clampedRangeSeconds * (summary.getBucketCount() - i) / summary.getBucketCount()),
+                i % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+            outputBuilder.append(": ");
+            if (Float.isNaN(bucketMean)) {
+                outputBuilder.append("-", CommandOutputBuilder.Color.GRAY);
+            } else {
+                outputBuilder.append(bucketMean, true, CommandOutputBuilder.Color.BLUE);
+            }
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private void appendSummarySegment(final CommandOutputBuilder outputBuilder, final HistoryTracker.Summary summary) {
+        if (summary.getSampleCount() == 0) {
+            outputBuilder.append("None Recorded", CommandOutputBuilder.Color.DARK_AQUA);
+            return;
+        }
+
+        outputBuilder.append("Min ");
+        outputBuilder.append(summary.getMin(), true, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append(" | Avg ");
+        outputBuilder.append(summary.getMean(), true, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append(" | Max ");
+        outputBuilder.append(summary.getMax(), true, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append(" | p99 ");
+        outputBuilder.append(summary.getP99(), true, CommandOutputBuilder.Color.BLUE);
+    }
+}
\ No newline at end of file
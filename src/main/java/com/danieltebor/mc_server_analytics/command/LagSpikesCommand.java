@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.tracker.LagSpikeTracker;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import net.minecraft.server.command.ServerCommandSource;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class LagSpikesCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "lag-spikes";
+    public static final String[][] ARG_NAMES = {};
+    public static final String DESCRIPTION = "Shows recent lag spikes and where their stack sample reports were saved";
+
+    private static final int MAX_LAG_SPIKES_SHOWN = 10;
+
+    public LagSpikesCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder();
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final LagSpikeTracker lagSpikeTracker = MCServerAnalytics.getInstance().getLagSpikeTracker();
+        final List<LagSpikeTracker.LagSpike> lagSpikes = lagSpikeTracker.getLagSpikes();
+        final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        final String title = "Lag Spikes (>" + lagSpikeTracker.getThresholdMS() + "ms)";
+        outputBuilder.append(isServerConsoleOutput ? title : "   " + title, CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n========================");
+
+        if (lagSpikes.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("None Recorded", CommandOutputBuilder.Color.DARK_AQUA);
+        }
+
+        for (int i = 0; i < Math.min(lagSpikes.size(), MAX_LAG_SPIKES_SHOWN); i++) {
+            final LagSpikeTracker.LagSpike lagSpike = lagSpikes.get(i);
+
+            outputBuilder.append("\n");
+            outputBuilder.append(timeFormat.format(new Date(lagSpike.getTimeMS())), CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(" | ");
+            outputBuilder.rateByLowerBoundAndAppend(lagSpike.getDurationMS(), lagSpikeTracker.getThresholdMS(),
+                lagSpikeTracker.getThresholdMS() * 2, lagSpikeTracker.getThresholdMS() * 5, false);
+            outputBuilder.append("ms | ");
+            outputBuilder.append(lagSpike.getSampleCount(), CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(" samples");
+
+            if (lagSpike.getHottestFrame() != null) {
+                outputBuilder.append("\n| ");
+                outputBuilder.append("Hottest Frame", CommandOutputBuilder.Color.LIGHT_PURPLE);
+                outputBuilder.append(": ");
+                outputBuilder.append(lagSpike.getHottestFrame(), CommandOutputBuilder.Color.BLUE);
+            }
+
+            outputBuilder.append("\n| ");
+            outputBuilder.append("Report", CommandOutputBuilder.Color.DARK_PURPLE);
+            outputBuilder.append(": ");
+            if (lagSpike.getReportName() != null) {
+                outputBuilder.append(lagSpike.getReportName(), CommandOutputBuilder.Color.BLUE);
+            } else {
+                outputBuilder.append("Failed to save", CommandOutputBuilder.Color.DARK_RED);
+            }
+        }
+
+        if (!lagSpikes.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("Reports are saved in " + lagSpikeTracker.getReportDir(), CommandOutputBuilder.Color.GRAY);
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+}
\ No newline at end of file
@@ -23,6 +23,7 @@
 package com.danieltebor.mc_server_analytics.command;
 
 import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.tracker.HistoryTracker;
 import com.danieltebor.mc_server_analytics.util.LoggerUtil;
 import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
@@ -37,18 +38,26 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.function.Supplier;
 
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
 
 /**
  * @author Daniel Tebor
  */
 public abstract class MCServerAnalyticsCommand {
 
+    @FunctionalInterface
+    protected static interface CommandExecutor {
+        public int execute(CommandContext<ServerCommandSource> context, boolean isServerConsoleOutput) throws CommandSyntaxException;
+    }
+
     private static final boolean SHOULD_BROADCAST_CONSOLE_TO_OPS;
 
     static {
@@ -149,12 +158,20 @@ public abstract class MCServerAnalyticsCommand {
      * as an argument for the .executes method when building the command.
      */
     protected final int executeParameterizedWrapper(final CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        return executeWrapper(context, this::executeParameterized);
+    }
+
+    /**
+     * This method wraps the given executor in a try-catch block and should be used as an argument
+     * for the .executes method by commands with more than one parameterized form.
+     */
+    protected final int executeWrapper(final CommandContext<ServerCommandSource> context, final CommandExecutor executor) throws CommandSyntaxException {
         if (!shouldExecute(context)) {
             return 0;
         }
         
         try {
-            return executeParameterized(context, !context.getSource().isExecutedByPlayer());
+            return executor.execute(context, !context.getSource().isExecutedByPlayer());
         } catch (Exception e) {
             handleError(e);
             return 0;
@@ -199,6 +216,74 @@ public abstract class MCServerAnalyticsCommand {
         }
     }
 
+    protected final String formatDimensionName(final CommandOutputBuilder outputBuilder, final ServerWorld world) {
+        final String dimName = world.getRegistryKey().getValue().getPath();
+        try {
+            return outputBuilder.formatSnakeCase(dimName);
+        } catch (Exception e) {
+            LoggerUtil.sendInfo("An unexpected error occured formatting dimension name for " + name + " command. Using unformatted version", true);
+            return dimName;
+        }
+    }
+
+    protected static final String formatIdentifier(final CommandOutputBuilder outputBuilder, final Identifier id) {
+        if (id == null) {
+            return "Unknown";
+        }
+
+        String path = id.getPath();
+        try {
+            path = outputBuilder.formatSnakeCase(path);
+        } catch (Exception e) {
+            // Unusual ids are shown unformatted.
+        }
+        return id.getNamespace().equals("minecraft") ? path : id.getNamespace() + ":" + path;
+    }
+
+    /**
+     * Summarizes the metric's history over the range, clamped to the span history covers, or sends an
+     * error and returns null if the range is invalid (-1) or history isn't available.
+     */
+    protected final HistoryTracker.Summary summarizeHistory(final CommandContext<ServerCommandSource> context,
+        final HistoryTracker.Metric metric, final long rangeSeconds, final int bucketCount) {
+        if (rangeSeconds == -1) {
+            sendErrorOutput(context, "Range must be a duration like 30m, 6h, 7d, or 1h30m");
+            return null;
+        }
+
+        final HistoryTracker historyTracker = MCServerAnalytics.getInstance().getHistoryTracker();
+        if (historyTracker.getOpenException() != null) {
+            sendErrorOutput(context, "History is unavailable: " + historyTracker.getOpenException().getMessage());
+            return null;
+        }
+
+        final HistoryTracker.Summary summary = historyTracker.summarize(metric,
+            Math.max(Math.min(rangeSeconds, historyTracker.getCoveredSeconds(metric)), bucketCount), bucketCount);
+        if (summary == null) {
+            sendErrorOutput(context, "History is still loading");
+        }
+        return summary;
+    }
+
+    /**
+     * Builds the output on the analytics executor and sends it from the server thread once built.
+     * Anything the output needs from the server thread must be snapshotted before calling this.
+     */
+    protected final void sendOutputOffThread(final CommandContext<ServerCommandSource> context,
+        final Supplier<String> buildOutput, final boolean isServerConsoleOutput) {
+        final MinecraftServer server = context.getSource().getServer();
+
+        MCServerAnalytics.getInstance().getAnalyticsExecutor().execute(() -> {
+            try {
+                final String output = buildOutput.get();
+                server.execute(() -> sendOutput(context, output, isServerConsoleOutput));
+            } catch (Exception e) {
+                LoggerUtil.sendError("Encountered error building output for " + name + " command", e);
+                server.execute(() -> sendErrorOutput(context, "Encountered unexpected error running " + name + " command"));
+            }
+        });
+    }
+
     protected final void sendErrorOutput(final CommandContext<ServerCommandSource> context, final String output) {
         context.getSource().sendError(Text.literal(output));
     }
@@ -24,13 +24,21 @@ package com.danieltebor.mc_server_analytics.command;
 
 import com.danieltebor.mc_server_analytics.MCServerAnalytics;
 import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.tracker.HistoryTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickInfoTracker;
+import com.danieltebor.mc_server_analytics.util.DurationUtil;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
 import java.util.AbstractMap;
 import java.util.stream.Stream;
 
+import net.minecraft.command.argument.DimensionArgumentType;
+import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
 
 /**
  * @author Daniel Tebor
@@ -38,8 +46,11 @@ import net.minecraft.server.command.ServerCommandSource;
 public class MSPTCommand extends MCServerAnalyticsCommand {
 
     public static String NAME = "mspt";
-    public static String[][] ARG_NAMES = {};
-    public static String DESCRITPION = "Shows avg server milliseconds per tick (mspt) for 5s, 15s, 1m, 5m, and 15m";
+    public static String[][] ARG_NAMES = {{"percentiles", "dimension", "last"}, {"dimension", "range"}};
+    public static String DESCRITPION = "Shows avg server or dimension milliseconds per tick (mspt) or mspt percentiles for 5s, 15s, 1m, 5m, and 15m, or avg/p99/max server mspt over the last range like 6h or 7d";
+
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9, 100};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p95", "p99", "p99.9", "Max"};
 
     MSPTCommand() {
         super(NAME, ARG_NAMES, DESCRITPION);
@@ -47,7 +58,16 @@ public class MSPTCommand extends MCServerAnalyticsCommand {
 
     @Override
     protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
-        return getDefaultArgumentBuilder();
+        return getDefaultArgumentBuilder()
+            .then(CommandManager.literal(ARG_NAMES[0][0])
+                .executes((context) -> executeWrapper(context, this::executePercentiles))
+                .then(CommandManager.argument(ARG_NAMES[1][0], DimensionArgumentType.dimension())
+                .executes((context) -> executeWrapper(context, this::executeDimensionPercentiles))))
+            .then(CommandManager.argument(ARG_NAMES[0][1], DimensionArgumentType.dimension())
+            .executes(this::executeParameterizedWrapper))
+            .then(CommandManager.literal(ARG_NAMES[0][2])
+                .then(CommandManager.argument(ARG_NAMES[1][1], StringArgumentType.word())
+                .executes((context) -> executeWrapper(context, this::executeRange))));
     }
     
     @Override
@@ -61,15 +81,99 @@ public class MSPTCommand extends MCServerAnalyticsCommand {
         return 1;
     }
 
+    @Override
+    protected int executeParameterized(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[0][1]);
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("MSPT", 
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+        outputBuilder.append(" - ");
+        outputBuilder.append(formatDimensionName(outputBuilder, world), CommandOutputBuilder.Color.AQUA);
+
+        appendOutput(outputBuilder, CommandOutputBuilder.Color.GOLD,
+            ((MinecraftServerAccessor) context.getSource().getServer()).getTickInfoTracker(world.getRegistryKey()));
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executePercentiles(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendPercentilesOutput(context, null, isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeDimensionPercentiles(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        sendPercentilesOutput(context, DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[1][0]), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeRange(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final long rangeSeconds = DurationUtil.parseSeconds(StringArgumentType.getString(context, ARG_NAMES[1][1]));
+        // The p99 and max come from the per-second p99 and max tick times rather than per-second averages.
+        final HistoryTracker.Summary msptSummary = summarizeHistory(context, HistoryTracker.Metric.MSPT, rangeSeconds, 1);
+        final HistoryTracker.Summary p99Summary = msptSummary != null
+            ? summarizeHistory(context, HistoryTracker.Metric.MSPT_P99, rangeSeconds, 1) : null;
+        final HistoryTracker.Summary maxSummary = p99Summary != null
+            ? summarizeHistory(context, HistoryTracker.Metric.MSPT_MAX, rangeSeconds, 1) : null;
+        if (maxSummary == null) {
+            return 0;
+        }
+
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("MSPT - Last " + DurationUtil.format(msptSummary.getRangeSeconds()),
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+
+        if (msptSummary.getSampleCount() == 0) {
+            outputBuilder.append(" | ");
+            outputBuilder.append("None Recorded", CommandOutputBuilder.Color.DARK_AQUA);
+        } else {
+            outputBuilder.append(" | ");
+            outputBuilder.append("Avg", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.rateByLowerBoundAndAppend(msptSummary.getMean(), 40, 45, 50, false);
+            outputBuilder.append(" | ");
+            outputBuilder.append("p99", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.rateByLowerBoundAndAppend(p99Summary.getP99(), 40, 45, 50, false);
+            outputBuilder.append(" | ");
+            outputBuilder.append("Max", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.rateByLowerBoundAndAppend(maxSummary.getMax(), 40, 45, 50, false);
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private void sendPercentilesOutput(final CommandContext<ServerCommandSource> context, final ServerWorld world, final boolean isServerConsoleOutput) {
+        final MinecraftServerAccessor tickInfoAccessor = (MinecraftServerAccessor) context.getSource().getServer();
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "MSPT Percentiles" : "   MSPT Percentiles",
+            CommandOutputBuilder.Color.AQUA);
+        if (world != null) {
+            outputBuilder.append(" - ");
+            outputBuilder.append(formatDimensionName(outputBuilder, world), CommandOutputBuilder.Color.AQUA);
+        }
+        outputBuilder.append("\n====================");
+
+        appendPercentilesOutput(outputBuilder, CommandOutputBuilder.Color.GOLD, world != null
+            ? tickInfoAccessor.getTickInfoTracker(world.getRegistryKey())
+            : tickInfoAccessor.getTickInfoTracker());
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+    }
+
     protected static void appendOutput(final CommandOutputBuilder outputBuilder, CommandOutputBuilder.Color labelColor) {
-        final MinecraftServerAccessor tickInfoAccessor = (MinecraftServerAccessor) MCServerAnalytics.getInstance().getServer();
+        appendOutput(outputBuilder, labelColor,
+            ((MinecraftServerAccessor) MCServerAnalytics.getInstance().getServer()).getTickInfoTracker());
+    }
 
+    protected static void appendOutput(final CommandOutputBuilder outputBuilder, CommandOutputBuilder.Color labelColor, final TickInfoTracker tickInfoTracker) {
         Stream.of(
-            new AbstractMap.SimpleImmutableEntry<String, Float>("5s", tickInfoAccessor.getMSPT5s()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("15s", tickInfoAccessor.getMSPT15s()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("1m", tickInfoAccessor.getMSPT1m()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("5m", tickInfoAccessor.getMSPT5m()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("15m", tickInfoAccessor.getMSPT15m())
+            new AbstractMap.SimpleImmutableEntry<String, Float>("5s", tickInfoTracker.getMSPT(5)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("15s", tickInfoTracker.getMSPT(15)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("1m", tickInfoTracker.getMSPT(60)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("5m", tickInfoTracker.getMSPT(60 * 5)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("15m", tickInfoTracker.getMSPT(60 * 15))
         ).forEach((msptInfo) -> {
             outputBuilder.append(" | ");
             outputBuilder.append(msptInfo.getKey(), labelColor);
@@ -78,4 +182,26 @@ public class MSPTCommand extends MCServerAnalyticsCommand {
             outputBuilder.rateByLowerBoundAndAppend(msptInfo.getValue(), 40, 45, 50, false);
         });
     }
+
+    protected static void appendPercentilesOutput(final CommandOutputBuilder outputBuilder, CommandOutputBuilder.Color labelColor, final TickInfoTracker tickInfoTracker) {
+        Stream.of(
+            new AbstractMap.SimpleImmutableEntry<String, Integer>("5s", 5),
+            new AbstractMap.SimpleImmutableEntry<String, Integer>("15s", 15),
+            new AbstractMap.SimpleImmutableEntry<String, Integer>("1m", 60),
+            new AbstractMap.SimpleImmutableEntry<String, Integer>("5m", 60 * 5),
+            new AbstractMap.SimpleImmutableEntry<String, Integer>("15m", 60 * 15)
+        ).forEach((windowInfo) -> {
+            outputBuilder.append("\n");
+            outputBuilder.append(windowInfo.getKey(), labelColor);
+
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                // Keeps each line short enough for the chat window.
+                outputBuilder.append(i % 3 == 0 ? "\n| " : " | ");
+                outputBuilder.append(PERCENTILE_LABELS[i], CommandOutputBuilder.Color.LIGHT_PURPLE);
+                outputBuilder.append(": ");
+
+                outputBuilder.rateByLowerBoundAndAppend(tickInfoTracker.getMSPTPercentile(windowInfo.getValue(), PERCENTILES[i]), 40, 45, 50, false);
+            }
+        });
+    }
 }
@@ -23,8 +23,11 @@
 package com.danieltebor.mc_server_analytics.command;
 
 import com.danieltebor.mc_server_analytics.MCServerAnalytics;
-import com.danieltebor.mc_server_analytics.accessor.ServerChunkManagerAccessor;
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
 import com.danieltebor.mc_server_analytics.tracker.CPUInfoTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityCensusTracker;
+import com.danieltebor.mc_server_analytics.tracker.HeadroomTracker;
 import com.danieltebor.mc_server_analytics.tracker.WorldFileInfoTracker;
 import com.danieltebor.mc_server_analytics.util.MemInfo;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
@@ -34,12 +37,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.OptionalDouble;
 
-import net.minecraft.entity.ItemEntity;
-import net.minecraft.entity.LivingEntity;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.TypeFilter;
-import net.minecraft.world.chunk.WorldChunk;
 
 /**
  * @author Daniel Tebor
@@ -72,21 +71,11 @@ public final class PerformanceSummaryCommand extends MCServerAnalyticsCommand {
         final int[] entitySums = {0, 0};
         
         context.getSource().getServer().getWorlds().forEach((world) -> {
-            final int[] loadedChunkInfo = {0, 0};
-            ((ServerChunkManagerAccessor) world.getChunkManager()).getChunkHolderEntryIterator().forEach((chunkHolder) -> {
-                WorldChunk worldChunk = chunkHolder.getWorldChunk();
-                if (worldChunk != null) {
-                    loadedChunkInfo[0]++;
-                    loadedChunkInfo[1] = worldChunk.countVerticalSections();
-                }
-            });
-            if (loadedChunkInfo[1] != 0){
-                loadedChunkInfo[0] = loadedChunkInfo[0] / loadedChunkInfo[1];
-            }
-            chunksLoadedSum[0] += loadedChunkInfo[0];
+            chunksLoadedSum[0] += ((ServerWorldAccessor) world).getChunkCountTracker().getLoadedChunkCount();
  
-            entitySums[0] += world.getEntitiesByType(TypeFilter.instanceOf(LivingEntity.class), entity -> true).size();
-            entitySums[1] += world.getEntitiesByType(TypeFilter.instanceOf(ItemEntity.class), entity -> true).size();
+            final EntityCensusTracker entityCensusTracker = ((ServerWorldAccessor) world).getEntityCensusTracker();
+            entitySums[0] += entityCensusTracker.getCount(EntityCensusTracker.Category.LIVING);
+            entitySums[1] += entityCensusTracker.getCount(EntityCensusTracker.Category.ITEMS);
         });
 
         outputBuilder.append("Loaded Chunks", CommandOutputBuilder.Color.GOLD);
@@ -129,6 +118,31 @@ public final class PerformanceSummaryCommand extends MCServerAnalyticsCommand {
         MSPTCommand.appendOutput(outputBuilder, CommandOutputBuilder.Color.DARK_AQUA);
         outputBuilder.append("\n");
 
+        // Server thread utilization & headroom.
+        final HeadroomTracker headroomTracker = ((MinecraftServerAccessor) context.getSource().getServer()).getHeadroomTracker();
+        final int estimatedMaxPlayers = headroomTracker.getEstimatedMaxPlayers(60, players.size());
+
+        outputBuilder.append("Server Thread (1m)", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(" | ");
+
+        outputBuilder.append("Utilization", CommandOutputBuilder.Color.LIGHT_PURPLE);
+        outputBuilder.append(": ");
+        outputBuilder.rateByLowerBoundAndAppend(headroomTracker.getUtilizationPercent(60), 70, 85, 95, false);
+        outputBuilder.append("% | ");
+
+        outputBuilder.append("Headroom", CommandOutputBuilder.Color.DARK_PURPLE);
+        outputBuilder.append(": ");
+        outputBuilder.rateByUpperBoundAndAppend(headroomTracker.getHeadroomPercent(60), 30, 15, 5, false);
+        outputBuilder.append("%");
+
+        if (estimatedMaxPlayers != -1) {
+            outputBuilder.append(" | ");
+            outputBuilder.append("Est. Max Players", CommandOutputBuilder.Color.LIGHT_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.append(estimatedMaxPlayers, CommandOutputBuilder.Color.BLUE);
+        }
+        outputBuilder.append("\n");
+
         // CPU load.
         final CPUInfoTracker cpuInfoTracker = MCServerAnalytics.getInstance().getCpuInfoTracker();
         final double cpuLoad = cpuInfoTracker.getOverallLoad();
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.tracker.ProfilerTracker;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import java.nio.file.Path;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class ProfilerCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "profiler";
+    public static final String[][] ARG_NAMES = {{"start", "stop", "dump"}};
+    public static final String DESCRIPTION = "Starts, stops, or saves a sampling profile of the server thread as a flame graph input, or shows profiler status";
+
+    public ProfilerCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder()
+            .then(CommandManager.literal(ARG_NAMES[0][0])
+            .executes((context) -> executeWrapper(context, this::executeStart)))
+            .then(CommandManager.literal(ARG_NAMES[0][1])
+            .executes((context) -> executeWrapper(context, this::executeStop)))
+            .then(CommandManager.literal(ARG_NAMES[0][2])
+            .executes((context) -> executeWrapper(context, this::executeDump)));
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final ProfilerTracker profilerTracker = MCServerAnalytics.getInstance().getProfilerTracker();
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("Profiler", 
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+        
+        outputBuilder.append(" | ");
+        if (profilerTracker.isProfiling()) {
+            outputBuilder.append("Running", CommandOutputBuilder.Color.GREEN);
+        } else {
+            outputBuilder.append("Stopped", CommandOutputBuilder.Color.DARK_AQUA);
+        }
+
+        appendProfileSegment(outputBuilder, profilerTracker);
+
+        final Path failedProfilePath = profilerTracker.getFailedProfilePath();
+        if (failedProfilePath != null) {
+            outputBuilder.append("\n| ");
+            outputBuilder.append("Last Save Failed", CommandOutputBuilder.Color.DARK_RED);
+            outputBuilder.append(": ");
+            outputBuilder.append(failedProfilePath.toString(), CommandOutputBuilder.Color.BLUE);
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeStart(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final ProfilerTracker profilerTracker = MCServerAnalytics.getInstance().getProfilerTracker();
+
+        if (!profilerTracker.startProfiling(context.getSource().getServer().getThread())) {
+            sendErrorOutput(context, "Profiler is already running");
+            return 0;
+        }
+
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("Profiler", 
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+        outputBuilder.append(" | ");
+        outputBuilder.append("Started", CommandOutputBuilder.Color.GREEN);
+        
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeStop(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final ProfilerTracker profilerTracker = MCServerAnalytics.getInstance().getProfilerTracker();
+        final Path profilePath = profilerTracker.stopProfiling();
+
+        if (profilePath == null) {
+            sendErrorOutput(context, "Profiler is not running");
+            return 0;
+        }
+
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("Profiler", 
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+        outputBuilder.append(" | ");
+        outputBuilder.append("Stopped", CommandOutputBuilder.Color.DARK_AQUA);
+
+        appendProfileSegment(outputBuilder, profilerTracker);
+        appendProfilePathSegment(outputBuilder, profilePath);
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeDump(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final ProfilerTracker profilerTracker = MCServerAnalytics.getInstance().getProfilerTracker();
+        final Path profilePath = profilerTracker.requestProfile();
+
+        if (profilePath == null) {
+            sendErrorOutput(context, "Profiler has not been started");
+            return 0;
+        }
+
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("Profiler", 
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+        
+        appendProfileSegment(outputBuilder, profilerTracker);
+        appendProfilePathSegment(outputBuilder, profilePath);
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private void appendProfileSegment(final CommandOutputBuilder outputBuilder, final ProfilerTracker profilerTracker) {
+        outputBuilder.append("\n| ");
+        outputBuilder.append("Duration", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.append(profilerTracker.getProfiledSeconds(), true, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append("s | ");
+
+        outputBuilder.append("Samples", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.append(profilerTracker.getSampleCount(), CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append(" | ");
+
+        outputBuilder.append("Interval", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.append(profilerTracker.getEffectiveSampleIntervalMS(), CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append("ms\n| ");
+
+        outputBuilder.append("Overhead", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.rateByLowerBoundAndAppend(profilerTracker.getOverheadPercent(), 0.5, 1, 2, false);
+        outputBuilder.append("% of server thread time");
+    }
+
+    private void appendProfilePathSegment(final CommandOutputBuilder outputBuilder, final Path profilePath) {
+        outputBuilder.append("\n| ");
+        outputBuilder.append("Saved To", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.append(profilePath.toString(), CommandOutputBuilder.Color.BLUE);
+    }
+}
\ No newline at end of file
@@ -24,13 +24,21 @@ package com.danieltebor.mc_server_analytics.command;
 
 import com.danieltebor.mc_server_analytics.MCServerAnalytics;
 import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.tracker.HistoryTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickInfoTracker;
+import com.danieltebor.mc_server_analytics.util.DurationUtil;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
 import java.util.AbstractMap;
 import java.util.stream.Stream;
 
+import net.minecraft.command.argument.DimensionArgumentType;
+import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
 
 /**
  * @author Daniel Tebor
@@ -38,8 +46,8 @@ import net.minecraft.server.command.ServerCommandSource;
 public final class TPSCommand extends MCServerAnalyticsCommand {
 
     public static final String NAME = "tps";
-    public static final String[][] ARG_NAMES = {};
-    public static final String DESCRIPTION = "Shows avg server TPS for 5s, 15s, 1m, 5m, and 15m";
+    public static final String[][] ARG_NAMES = {{"dimension", "last"}, {"range"}};
+    public static final String DESCRIPTION = "Shows avg server or dimension TPS for 5s, 15s, 1m, 5m, and 15m, or avg/min/max server TPS over the last range like 6h or 7d";
 
     public TPSCommand() {
         super(NAME, ARG_NAMES, DESCRIPTION);
@@ -47,7 +55,12 @@ public final class TPSCommand extends MCServerAnalyticsCommand {
 
     @Override
     protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
-        return getDefaultArgumentBuilder();
+        return getDefaultArgumentBuilder()
+            .then(CommandManager.argument(ARG_NAMES[0][0], DimensionArgumentType.dimension())
+            .executes(this::executeParameterizedWrapper))
+            .then(CommandManager.literal(ARG_NAMES[0][1])
+                .then(CommandManager.argument(ARG_NAMES[1][0], StringArgumentType.word())
+                .executes((context) -> executeWrapper(context, this::executeRange))));
     }
 
     @Override
@@ -61,15 +74,65 @@ public final class TPSCommand extends MCServerAnalyticsCommand {
         return 1;
     }
 
+    @Override
+    protected int executeParameterized(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) throws CommandSyntaxException {
+        final ServerWorld world = DimensionArgumentType.getDimensionArgument(context, ARG_NAMES[0][0]);
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("TPS", 
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+        outputBuilder.append(" - ");
+        outputBuilder.append(formatDimensionName(outputBuilder, world), CommandOutputBuilder.Color.AQUA);
+
+        appendOutput(outputBuilder, CommandOutputBuilder.Color.GOLD,
+            ((MinecraftServerAccessor) context.getSource().getServer()).getTickInfoTracker(world.getRegistryKey()));
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeRange(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final HistoryTracker.Summary summary = summarizeHistory(context, HistoryTracker.Metric.TPS,
+            DurationUtil.parseSeconds(StringArgumentType.getString(context, ARG_NAMES[1][0])), 1);
+        if (summary == null) {
+            return 0;
+        }
+
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("TPS - Last " + DurationUtil.format(summary.getRangeSeconds()),
+            CommandOutputBuilder.Color.AQUA, isServerConsoleOutput);
+
+        if (summary.getSampleCount() == 0) {
+            outputBuilder.append(" | ");
+            outputBuilder.append("None Recorded", CommandOutputBuilder.Color.DARK_AQUA);
+        } else {
+            outputBuilder.append(" | ");
+            outputBuilder.append("Avg", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.rateByUpperBoundAndAppend(summary.getMean(), 18, 12, 6, false);
+            outputBuilder.append(" | ");
+            outputBuilder.append("Min", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.rateByUpperBoundAndAppend(summary.getMin(), 18, 12, 6, false);
+            outputBuilder.append(" | ");
+            outputBuilder.append("Max", CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.rateByUpperBoundAndAppend(summary.getMax(), 18, 12, 6, false);
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
     protected static void appendOutput(final CommandOutputBuilder outputBuilder, CommandOutputBuilder.Color labelColor) {
-        final MinecraftServerAccessor tickInfoAccessor = (MinecraftServerAccessor) MCServerAnalytics.getInstance().getServer();
+        appendOutput(outputBuilder, labelColor,
+            ((MinecraftServerAccessor) MCServerAnalytics.getInstance().getServer()).getTickInfoTracker());
+    }
 
+    protected static void appendOutput(final CommandOutputBuilder outputBuilder, CommandOutputBuilder.Color labelColor, final TickInfoTracker tickInfoTracker) {
         Stream.of(
-            new AbstractMap.SimpleImmutableEntry<String, Float>("5s", tickInfoAccessor.getTPS5s()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("15s", tickInfoAccessor.getTPS15s()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("1m", tickInfoAccessor.getTPS1m()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("5m", tickInfoAccessor.getTPS5m()),
-            new AbstractMap.SimpleImmutableEntry<String, Float>("15m", tickInfoAccessor.getTPS15m())
+            new AbstractMap.SimpleImmutableEntry<String, Float>("5s", tickInfoTracker.getTPS(5)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("15s", tickInfoTracker.getTPS(15)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("1m", tickInfoTracker.getTPS(60)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("5m", tickInfoTracker.getTPS(60 * 5)),
+            new AbstractMap.SimpleImmutableEntry<String, Float>("15m", tickInfoTracker.getTPS(60 * 15))
         ).forEach((tpsInfo) -> {
             outputBuilder.append(" | ");
             outputBuilder.append(tpsInfo.getKey(), labelColor);
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.tracker.TaskQueueTracker;
+import com.danieltebor.mc_server_analytics.util.LogLinearHistogram;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class TaskQueueCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "task-queue";
+    public static final String[][] ARG_NAMES = {};
+    public static final String DESCRIPTION = "Shows how many tasks are queued for the server thread and how long tasks from each thread pool waited over 1m";
+
+    public TaskQueueCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder();
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final MinecraftServer server = context.getSource().getServer();
+        final TaskQueueTracker taskQueueTracker = ((MinecraftServerAccessor) server).getTaskQueueTracker();
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Task Queue (1m)" : "    Task Queue (1m)", CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n====================\n");
+
+        outputBuilder.append("Queued Now", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.append(server.getTaskCount(), CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append(" | ");
+        outputBuilder.append("Max Queued", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.append(taskQueueTracker.getMaxDepth(), CommandOutputBuilder.Color.BLUE);
+
+        final List<OriginQueueTime> originQueueTimes = new ArrayList<>();
+        for (int originId = 0; originId < taskQueueTracker.getOriginCount(); originId++) {
+            final LogLinearHistogram histogram = taskQueueTracker.getQueueTimeHistogram(originId);
+            if (histogram.getCount() > 0) {
+                originQueueTimes.add(new OriginQueueTime(taskQueueTracker.getOriginName(originId), histogram));
+            }
+        }
+        originQueueTimes.sort(Comparator.comparingLong((OriginQueueTime originQueueTime) -> originQueueTime.p99NS).reversed());
+
+        if (originQueueTimes.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("None Recorded", CommandOutputBuilder.Color.DARK_AQUA);
+        }
+
+        for (OriginQueueTime originQueueTime : originQueueTimes) {
+            outputBuilder.append("\n");
+            outputBuilder.append(originQueueTime.originName, CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.append(originQueueTime.histogram.getCount(), CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(" tasks\n| ");
+
+            outputBuilder.append("p50", CommandOutputBuilder.Color.LIGHT_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.rateByLowerBoundAndAppend(originQueueTime.histogram.getValueAtPercentile(50) / 1000000.0, 5, 20, 50, false);
+            outputBuilder.append("ms | ");
+
+            outputBuilder.append("p99", CommandOutputBuilder.Color.DARK_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.rateByLowerBoundAndAppend(originQueueTime.p99NS / 1000000.0, 5, 20, 50, false);
+            outputBuilder.append("ms | ");
+
+            outputBuilder.append("Max", CommandOutputBuilder.Color.LIGHT_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.rateByLowerBoundAndAppend(originQueueTime.histogram.getMaxValue() / 1000000.0, 5, 20, 50, false);
+            outputBuilder.append("ms");
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private static final class OriginQueueTime {
+        private final String originName;
+        private final LogLinearHistogram histogram;
+        private final long p99NS;
+
+        private OriginQueueTime(final String originName, final LogLinearHistogram histogram) {
+            this.originName = originName;
+            this.histogram = histogram;
+            this.p99NS = histogram.getValueAtPercentile(99);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.command;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.tracker.TickPhaseTracker;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.server.command.ServerCommandSource;
+
+/**
+ * @author Daniel Tebor
+ */
+public final class TickBreakdownCommand extends MCServerAnalyticsCommand {
+
+    public static final String NAME = "tick-breakdown";
+    public static final String[][] ARG_NAMES = {};
+    public static final String DESCRIPTION = "Shows avg ms per tick and share of tick spent in each part of the tick over 1m";
+
+    private static final int SECONDS_TO_TRACK = 60;
+    private static final CommandOutputBuilder.Color[] DEPTH_COLORS = {
+        CommandOutputBuilder.Color.GOLD,
+        CommandOutputBuilder.Color.LIGHT_PURPLE,
+        CommandOutputBuilder.Color.DARK_PURPLE,
+        CommandOutputBuilder.Color.DARK_AQUA
+    };
+
+    public TickBreakdownCommand() {
+        super(NAME, ARG_NAMES, DESCRIPTION);
+    }
+
+    @Override
+    protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
+        return getDefaultArgumentBuilder();
+    }
+
+    @Override
+    protected int executeDefault(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        final TickPhaseTracker tickPhaseTracker = ((MinecraftServerAccessor) context.getSource().getServer()).getTickPhaseTracker();
+        final float tickMSPT = tickPhaseTracker.getAvgPhaseMSPT(TickPhaseTracker.Phase.TICK, SECONDS_TO_TRACK);
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Tick Breakdown (1m)" : "   Tick Breakdown (1m)",
+            CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n=======================");
+
+        for (TickPhaseTracker.Phase phase : TickPhaseTracker.Phase.values()) {
+            if (phase.getParent() == null) {
+                appendPhaseSegment(outputBuilder, tickPhaseTracker, phase, tickMSPT, 0);
+            }
+        }
+
+        sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
+        return 1;
+    }
+
+    private void appendPhaseSegment(final CommandOutputBuilder outputBuilder, final TickPhaseTracker tickPhaseTracker,
+                                    final TickPhaseTracker.Phase phase, final float tickMSPT, final int depth) {
+        final float phaseMSPT = tickPhaseTracker.getAvgPhaseMSPT(phase, SECONDS_TO_TRACK);
+        appendPhaseLine(outputBuilder, phase.getName(), DEPTH_COLORS[Math.min(depth, DEPTH_COLORS.length - 1)],
+            phaseMSPT, tickMSPT, depth);
+
+        float childrenMSPT = 0;
+        boolean hasChildren = false;
+
+        for (TickPhaseTracker.Phase childPhase : TickPhaseTracker.Phase.values()) {
+            if (childPhase.getParent() == phase) {
+                hasChildren = true;
+                childrenMSPT += tickPhaseTracker.getAvgPhaseMSPT(childPhase, SECONDS_TO_TRACK);
+                appendPhaseSegment(outputBuilder, tickPhaseTracker, childPhase, tickMSPT, depth + 1);
+            }
+        }
+
+        // Time in the phase that none of its instrumented children account for.
+        if (hasChildren) {
+            appendPhaseLine(outputBuilder, "Other", CommandOutputBuilder.Color.GRAY,
+                Math.max(phaseMSPT - childrenMSPT, 0), tickMSPT, depth + 1);
+        }
+    }
+
+    private void appendPhaseLine(final CommandOutputBuilder outputBuilder, final String label, final CommandOutputBuilder.Color color,
+                                 final float phaseMSPT, final float tickMSPT, final int depth) {
+        outputBuilder.append("\n");
+        for (int i = 0; i < depth; i++) {
+            outputBuilder.append("| ");
+        }
+
+        outputBuilder.append(label, color);
+        outputBuilder.append(": ");
+        outputBuilder.append(phaseMSPT, true, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append("ms (");
+        outputBuilder.append(tickMSPT > 0 ? (int) (phaseMSPT / tickMSPT * 100) : 0, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append("%)");
+    }
+}
\ No newline at end of file
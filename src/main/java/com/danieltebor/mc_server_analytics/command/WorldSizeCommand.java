@@ -23,20 +23,43 @@
 package com.danieltebor.mc_server_analytics.command;
 
 import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.tracker.RegionFileSnapshot;
+import com.danieltebor.mc_server_analytics.tracker.RegionIoTracker;
 import com.danieltebor.mc_server_analytics.tracker.WorldFileInfoTracker;
+import com.danieltebor.mc_server_analytics.util.LogLinearHistogram;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.dimension.DimensionType;
 
 /**
  * @author Daniel Tebor
  */
 public class WorldSizeCommand extends MCServerAnalyticsCommand {
     public static final String NAME = "world-size";
-    public static final String[][] ARG_NAMES = {};
-    public static final String DESCRIPTION = "Shows world file size";
+    public static final String[][] ARG_NAMES = {{"regions"}, {"count"}};
+    public static final String DESCRIPTION = "Shows world file size per dimension and storage and region file reads and writes per storage since start, or the largest region files";
+
+    // Storages not listed here are summed as other.
+    private static final String[] STORAGE_DIRECTORIES = {"region", "entities", "poi", "playerdata", "data"};
+    private static final String[] STORAGE_NAMES = {"Region", "Entities", "POI", "Player Data", "Data", "Other"};
+
+    private static final int DEFAULT_REGION_FILES_SHOWN = 10;
+    private static final int MAX_REGION_FILES_SHOWN = 50;
 
     public WorldSizeCommand() {
         super(NAME, ARG_NAMES, DESCRIPTION);
@@ -44,7 +67,11 @@ public class WorldSizeCommand extends MCServerAnalyticsCommand {
 
     @Override
     protected LiteralArgumentBuilder<ServerCommandSource> getArgumentBuilderImpl() {
-        return getDefaultArgumentBuilder();
+        return getDefaultArgumentBuilder()
+            .then(CommandManager.literal(ARG_NAMES[0][0])
+                .executes((context) -> executeWrapper(context, this::executeRegions))
+                .then(CommandManager.argument(ARG_NAMES[1][0], IntegerArgumentType.integer(1, MAX_REGION_FILES_SHOWN))
+                .executes((context) -> executeWrapper(context, this::executeRegionsWithCount))));
     }
 
     @Override
@@ -59,6 +86,9 @@ public class WorldSizeCommand extends MCServerAnalyticsCommand {
         }
 
         appendOutput(outputBuilder, worldFileInfoTracker);
+        appendDimensionOutput(outputBuilder, context.getSource().getServer(), worldFileInfoTracker);
+        appendRegionIoOutput(outputBuilder, MCServerAnalytics.getInstance().getRegionIoTracker(),
+            context.getSource().getServer().getSavePath(WorldSavePath.ROOT));
 
         sendOutput(context, outputBuilder.toString(), isServerConsoleOutput);
         return 1;
@@ -76,4 +106,187 @@ public class WorldSizeCommand extends MCServerAnalyticsCommand {
             outputBuilder.append(" *NOT ACTIVELY TRACKING", CommandOutputBuilder.Color.DARK_RED);
         }
     }
+
+    private void appendDimensionOutput(final CommandOutputBuilder outputBuilder, final MinecraftServer server, final WorldFileInfoTracker worldFileInfoTracker) {
+        final Path worldPath = worldFileInfoTracker.getWorldPath();
+        // The overworld's directory is the world's, so the deepest directory containing a path is its dimension's.
+        final List<ServerWorld> worlds = new ArrayList<>();
+        final List<Path> dimensionPaths = new ArrayList<>();
+        server.getWorlds().forEach((world) -> worlds.add(world));
+        worlds.sort(Comparator.comparingInt((ServerWorld world) -> getDimensionPath(world, worldPath).getNameCount()).reversed());
+        worlds.forEach((world) -> dimensionPaths.add(getDimensionPath(world, worldPath)));
+
+        final long[][] storageSizes = new long[worlds.size()][STORAGE_NAMES.length];
+        worldFileInfoTracker.getDirectorySizes().forEach((relativeDirectory, sizeBytes) -> {
+            final Path directory = worldPath.resolve(relativeDirectory);
+            for (int i = 0; i < dimensionPaths.size(); i++) {
+                if (directory.startsWith(dimensionPaths.get(i))) {
+                    storageSizes[i][getStorageIndex(dimensionPaths.get(i), directory)] += sizeBytes;
+                    return;
+                }
+            }
+        });
+
+        for (int i = worlds.size() - 1; i >= 0; i--) {
+            long dimensionSize = 0;
+            for (long storageSize : storageSizes[i]) {
+                dimensionSize += storageSize;
+            }
+
+            outputBuilder.append("\n");
+            outputBuilder.append(formatDimensionName(outputBuilder, worlds.get(i)), CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.append(dimensionSize / 1048576.0, true, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("MB");
+
+            boolean isFirstStorage = true;
+            for (int j = 0; j < STORAGE_NAMES.length; j++) {
+                if (storageSizes[i][j] == 0) {
+                    continue;
+                }
+
+                outputBuilder.append(isFirstStorage ? "\n| " : " | ");
+                outputBuilder.append(STORAGE_NAMES[j], j % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                outputBuilder.append(storageSizes[i][j] / 1048576.0, true, CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append("MB");
+                isFirstStorage = false;
+            }
+        }
+    }
+
+    private static Path getDimensionPath(final ServerWorld world, final Path worldPath) {
+        return DimensionType.getSaveDirectory(world.getRegistryKey(), worldPath).toAbsolutePath().normalize();
+    }
+
+    private static int getStorageIndex(final Path dimensionPath, final Path directory) {
+        if (!directory.equals(dimensionPath)) {
+            final String storageDirectory = dimensionPath.relativize(directory).getName(0).toString();
+            for (int i = 0; i < STORAGE_DIRECTORIES.length; i++) {
+                if (STORAGE_DIRECTORIES[i].equals(storageDirectory)) {
+                    return i;
+                }
+            }
+        }
+        return STORAGE_NAMES.length - 1;
+    }
+
+    private int executeRegions(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendRegionsOutput(context, DEFAULT_REGION_FILES_SHOWN, isServerConsoleOutput);
+        return 1;
+    }
+
+    private int executeRegionsWithCount(final CommandContext<ServerCommandSource> context, final boolean isServerConsoleOutput) {
+        sendRegionsOutput(context, IntegerArgumentType.getInteger(context, ARG_NAMES[1][0]), isServerConsoleOutput);
+        return 1;
+    }
+
+    private void sendRegionsOutput(final CommandContext<ServerCommandSource> context, final int count, final boolean isServerConsoleOutput) {
+        final WorldFileInfoTracker worldFileInfoTracker = MCServerAnalytics.getInstance().getWorldFileInfoTracker();
+
+        if (!worldFileInfoTracker.isAlive() && worldFileInfoTracker.getWorldSizeBytes() == -1) {
+            context.getSource().sendError(Text.literal("World size is unavailable"));
+            return;
+        }
+
+        // Region file headers are read off the server thread.
+        sendOutputOffThread(context, () -> buildRegionsOutput(RegionFileSnapshot.take(worldFileInfoTracker.getWorldPath(),
+            worldFileInfoTracker.getFileSizes(RegionFileSnapshot.REGION_FILE_SUFFIX)), count, isServerConsoleOutput),
+            isServerConsoleOutput);
+    }
+
+    private String buildRegionsOutput(final RegionFileSnapshot snapshot, final int count, final boolean isServerConsoleOutput) {
+        final CommandOutputBuilder outputBuilder = new CommandOutputBuilder("\n", isServerConsoleOutput);
+
+        outputBuilder.append(isServerConsoleOutput ? "Largest Region Files" : "   Largest Region Files", CommandOutputBuilder.Color.AQUA);
+        outputBuilder.append("\n========================");
+
+        final List<RegionFileSnapshot.RegionFile> regionFiles = snapshot.getLargest(count);
+        if (regionFiles.isEmpty()) {
+            outputBuilder.append("\n");
+            outputBuilder.append("No Region Files", CommandOutputBuilder.Color.DARK_AQUA);
+            return outputBuilder.toString();
+        }
+
+        for (RegionFileSnapshot.RegionFile regionFile : regionFiles) {
+            outputBuilder.append("\n");
+            outputBuilder.append(regionFile.getPath().toString().replace('\\', '/'), CommandOutputBuilder.Color.GOLD);
+            outputBuilder.append(": ");
+            outputBuilder.append(regionFile.getFileSizeBytes() / 1048576.0, true, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("MB\n| ");
+            outputBuilder.append("Chunks", CommandOutputBuilder.Color.LIGHT_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.append(regionFile.getChunkCount(), CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append(" | ");
+            outputBuilder.append("Allocated", CommandOutputBuilder.Color.DARK_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.append(regionFile.getAllocatedBytes() / 1048576.0, true, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("MB | ");
+            outputBuilder.append("Unused", CommandOutputBuilder.Color.LIGHT_PURPLE);
+            outputBuilder.append(": ");
+            outputBuilder.append(regionFile.getUnusedBytes() / 1048576.0, true, CommandOutputBuilder.Color.BLUE);
+            outputBuilder.append("MB");
+        }
+
+        outputBuilder.append("\n");
+        outputBuilder.append("Total", CommandOutputBuilder.Color.GOLD);
+        outputBuilder.append(": ");
+        outputBuilder.append(snapshot.getRegionFileCount(), CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append(" files | ");
+        outputBuilder.append(snapshot.getChunkCount(), CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append(" chunks | ");
+        outputBuilder.append(snapshot.getUnusedBytes() / 1048576.0, true, CommandOutputBuilder.Color.BLUE);
+        outputBuilder.append("MB unused");
+
+        return outputBuilder.toString();
+    }
+
+    private static void appendRegionIoOutput(final CommandOutputBuilder outputBuilder, final RegionIoTracker regionIoTracker, final Path worldPath) {
+        final Path normalizedWorldPath = worldPath.toAbsolutePath().normalize();
+        // Sorted by path so each dimension's storages are listed together.
+        final Map<String, RegionIoTracker.RegionIoStats> statsByName = new TreeMap<>();
+        regionIoTracker.getStatsByDirectory().forEach((directory, stats) -> {
+            statsByName.put(directory.startsWith(normalizedWorldPath)
+                ? normalizedWorldPath.relativize(directory).toString().replace('\\', '/')
+                : directory.toString(), stats);
+        });
+
+        outputBuilder.append("\nRegion I/O (since start)", CommandOutputBuilder.Color.AQUA);
+        if (statsByName.isEmpty()) {
+            outputBuilder.append("\n| No region files read or written yet");
+            return;
+        }
+
+        statsByName.forEach((name, stats) -> {
+            outputBuilder.append("\n");
+            outputBuilder.append(name, CommandOutputBuilder.Color.GOLD);
+
+            final RegionIoTracker.Operation[] operations = RegionIoTracker.Operation.values();
+            for (int i = 0; i < operations.length; i++) {
+                final long count = stats.getCount(operations[i]);
+
+                outputBuilder.append("\n| ");
+                outputBuilder.append(operations[i].getName(), i % 2 == 0 ? CommandOutputBuilder.Color.LIGHT_PURPLE : CommandOutputBuilder.Color.DARK_PURPLE);
+                outputBuilder.append(": ");
+                outputBuilder.append(count, CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append(" (");
+                outputBuilder.append(stats.getBytes(operations[i]) / 1048576.0, true, CommandOutputBuilder.Color.BLUE);
+                outputBuilder.append("MB)");
+
+                if (count == 0) {
+                    continue;
+                }
+
+                final LogLinearHistogram diskTimeHistogram = stats.getDiskTimeHistogram(operations[i]);
+                final LogLinearHistogram totalTimeHistogram = stats.getTotalTimeHistogram(operations[i]);
+                outputBuilder.append(" | Disk p50: ");
+                outputBuilder.rateByLowerBoundAndAppend(diskTimeHistogram.getValueAtPercentile(50) / 1000000.0, 5, 20, 100, false);
+                outputBuilder.append("ms | Disk p99: ");
+                outputBuilder.rateByLowerBoundAndAppend(diskTimeHistogram.getValueAtPercentile(99) / 1000000.0, 5, 20, 100, false);
+                outputBuilder.append("ms | Total p99: ");
+                outputBuilder.rateByLowerBoundAndAppend(totalTimeHistogram.getValueAtPercentile(99) / 1000000.0, 5, 20, 100, false);
+                outputBuilder.append("ms");
+            }
+        });
+    }
 }
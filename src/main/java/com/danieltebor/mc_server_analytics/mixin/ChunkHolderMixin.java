@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+
+import java.util.concurrent.Executor;
+
+import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ThreadedAnvilChunkStorage;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(ChunkHolder.class)
+public abstract class ChunkHolderMixin {
+    @Shadow
+    private int lastTickLevel;
+    @Shadow
+    private int level;
+
+    // The holder moves from its last tick level to its current level here, including when it is
+    // created and when it is dropped, so every level type change is seen exactly once.
+    @Inject(method = "tick(Lnet/minecraft/server/world/ThreadedAnvilChunkStorage;Ljava/util/concurrent/Executor;)V", at = @At("HEAD"))
+    private void onTick(final ThreadedAnvilChunkStorage chunkStorage, final Executor executor, final CallbackInfo ci) {
+        final ChunkHolder.LevelType lastLevelType = ChunkHolder.getLevelType(lastTickLevel);
+        final ChunkHolder.LevelType levelType = ChunkHolder.getLevelType(level);
+        if (lastLevelType != levelType) {
+            ((ServerWorldAccessor) ((ThreadedAnvilChunkStorageAccessor) chunkStorage).getWorld()).getChunkCountTracker()
+                .onLevelTypeChange(lastLevelType, levelType);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.ChunkHotspotTracker;
+
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(targets = "net.minecraft.world.chunk.WorldChunk$DirectBlockEntityTickInvoker")
+public abstract class DirectBlockEntityTickInvokerMixin {
+    @Shadow @Final private BlockEntity blockEntity;
+
+    private long tickStartTimeNS;
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void onTickStart(final CallbackInfo ci) {
+        tickStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void onTickEnd(final CallbackInfo ci) {
+        if (blockEntity.getWorld() instanceof ServerWorld serverWorld) {
+            final long tickTimeNS = System.nanoTime() - tickStartTimeNS;
+            final BlockPos pos = blockEntity.getPos();
+
+            ((MinecraftServerAccessor) serverWorld.getServer()).getBlockEntityCostTracker()
+                .submit(Registries.BLOCK_ENTITY_TYPE.getRawId(blockEntity.getType()), tickTimeNS);
+            ((ServerWorldAccessor) serverWorld).getChunkHotspotTracker()
+                .submit(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4), ChunkHotspotTracker.Source.BLOCK_ENTITIES, tickTimeNS);
+        }
+    }
+}
\ No newline at end of file
@@ -22,16 +22,35 @@
 
 package com.danieltebor.mc_server_analytics.mixin;
 
+import com.danieltebor.mc_server_analytics.MCServerAnalytics;
 import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.accessor.ServerTaskAccessor;
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.ChunkChurnTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityCensusTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityPopulationTracker;
+import com.danieltebor.mc_server_analytics.tracker.HeadroomTracker;
+import com.danieltebor.mc_server_analytics.tracker.HistoryTracker;
+import com.danieltebor.mc_server_analytics.tracker.TaskQueueTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickCostTracker;
 import com.danieltebor.mc_server_analytics.tracker.TickInfoTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickPhaseTracker;
+import com.danieltebor.mc_server_analytics.util.LoggerUtil;
 
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.ServerTask;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 import java.util.function.BooleanSupplier;
 
 import org.spongepowered.asm.mixin.Implements;
 import org.spongepowered.asm.mixin.Interface;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -43,58 +62,226 @@ import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 @Mixin(MinecraftServer.class)
 @Implements({@Interface(iface = MinecraftServerAccessor.class, prefix = "mcServerAnalytics$")})
 public abstract class MinecraftServerMixin {
-    private final TickInfoTracker tickTimesNS5s = new TickInfoTracker(5);
-    private final TickInfoTracker tickTimesNS15s = new TickInfoTracker(15);
-    private final TickInfoTracker tickTimesNS1m = new TickInfoTracker(60);
-    private final TickInfoTracker tickTimesNS5m = new TickInfoTracker(60 * 5);
-    private final TickInfoTracker tickTimesNS15m = new TickInfoTracker(60 * 15);
+    private final TickInfoTracker tickInfoTracker = new TickInfoTracker();
+    private final TickPhaseTracker tickPhaseTracker = new TickPhaseTracker();
+    private final TickCostTracker entityCostTracker = new TickCostTracker(Registries.ENTITY_TYPE.size());
+    private final TickCostTracker blockEntityCostTracker = new TickCostTracker(Registries.BLOCK_ENTITY_TYPE.size());
+    private final HeadroomTracker headroomTracker = new HeadroomTracker();
+    private final TaskQueueTracker taskQueueTracker = new TaskQueueTracker();
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void onTickStart(final BooleanSupplier shouldKeepTicking, final CallbackInfo ci) {
+        headroomTracker.submitTickStart(((MinecraftServer) (Object) this).getCurrentPlayerCount());
+
+        // The mod is only initialized on dedicated servers, but the mixin also applies to integrated servers.
+        final MCServerAnalytics mcServerAnalytics = MCServerAnalytics.getInstance();
+        if (mcServerAnalytics != null) {
+            mcServerAnalytics.getLagSpikeTracker().onTickStart();
+        }
+    }
 
     @Inject(method = "tick", at = @At("RETURN"), locals = LocalCapture.CAPTURE_FAILHARD)
     private void injected(final BooleanSupplier shouldKeepTicking, final CallbackInfo ci, final long tickStartTimeNS, final long tickDurationNS) {
-        tickTimesNS5s.submitTickTimeNS(tickDurationNS);
-        tickTimesNS15s.submitTickTimeNS(tickDurationNS);
-        tickTimesNS1m.submitTickTimeNS(tickDurationNS);
-        tickTimesNS5m.submitTickTimeNS(tickDurationNS);
-        tickTimesNS15m.submitTickTimeNS(tickDurationNS);
+        tickInfoTracker.submitTickTimeNS(tickDurationNS);
+        tickPhaseTracker.submitTick(tickDurationNS);
+        entityCostTracker.submitTick();
+        blockEntityCostTracker.submitTick();
+
+        final MCServerAnalytics mcServerAnalytics = MCServerAnalytics.getInstance();
+        if (mcServerAnalytics != null) {
+            mcServerAnalytics.getLagSpikeTracker().onTickEnd(tickDurationNS);
+
+            if (((MinecraftServer) (Object) this).getTicks() % TickInfoTracker.DESIRED_TPS == 0) {
+                submitWorldCounts(mcServerAnalytics.getHistoryTracker());
+                checkChunkChurn(mcServerAnalytics.getChunkChurnAlertLoadsPerMinute());
+                checkEntityGrowth(mcServerAnalytics.getEntityGrowthAlertPerMinute());
+            }
+        }
+    }
+
+    @Unique
+    private void submitWorldCounts(final HistoryTracker historyTracker) {
+        int entityCount = 0;
+        int loadedChunkCount = 0;
+
+        for (ServerWorld world : ((MinecraftServer) (Object) this).getWorlds()) {
+            entityCount += ((ServerWorldAccessor) world).getEntityCensusTracker().getEntityCount();
+            loadedChunkCount += ((ServerWorldAccessor) world).getChunkCountTracker().getLoadedChunkCount();
+        }
+
+        historyTracker.submitWorldCounts(entityCount, loadedChunkCount);
+    }
+
+    @Unique
+    private void checkChunkChurn(final long alertLoadsPerMinute) {
+        if (alertLoadsPerMinute <= 0) {
+            return;
+        }
+
+        for (ServerWorld world : ((MinecraftServer) (Object) this).getWorlds()) {
+            final ChunkChurnTracker chunkChurnTracker = ((ServerWorldAccessor) world).getChunkChurnTracker();
+            final long chunkPos = chunkChurnTracker.pollChurningChunk(alertLoadsPerMinute);
+            if (chunkPos == ChunkChurnTracker.NO_CHUNK) {
+                continue;
+            }
+
+            final long regionPos = ChunkChurnTracker.getRegionPos(chunkPos);
+            LoggerUtil.sendAlert(String.format("Chunk [%d, %d] in %s is being loaded %.1f times a minute (region r.%d.%d). "
+                + "Use /chunk-churn to see the regions with the most chunk loads and unloads",
+                ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos), world.getRegistryKey().getValue(),
+                chunkChurnTracker.getChunkLoadsPerMinute(chunkPos), ChunkPos.getPackedX(regionPos), ChunkPos.getPackedZ(regionPos)));
+        }
+    }
+
+    @Unique
+    private void checkEntityGrowth(final long alertGrowthPerMinute) {
+        if (alertGrowthPerMinute <= 0) {
+            return;
+        }
+
+        for (ServerWorld world : ((MinecraftServer) (Object) this).getWorlds()) {
+            final EntityPopulationTracker entityPopulationTracker = ((ServerWorldAccessor) world).getEntityPopulationTracker();
+            final EntityCensusTracker.Category category = entityPopulationTracker.pollGrowingCategory(alertGrowthPerMinute);
+            if (category == null) {
+                continue;
+            }
+
+            LoggerUtil.sendAlert(String.format("%s entities in %s are growing by %.1f a minute (%d now, %+d over %dm). "
+                + "Use /entity-info clusters to see where entities are piling up",
+                category.getName(), world.getRegistryKey().getValue(), entityPopulationTracker.getGrowthPerMinute(category),
+                entityPopulationTracker.getCount(category), entityPopulationTracker.getGrowth(category, EntityPopulationTracker.ALERT_WINDOW_MINUTES),
+                EntityPopulationTracker.ALERT_WINDOW_MINUTES));
+        }
+    }
+
+    @Inject(method = "tickWorlds", at = @At("HEAD"))
+    private void onTickWorldsStart(final BooleanSupplier shouldKeepTicking, final CallbackInfo ci) {
+        tickPhaseTracker.enter(TickPhaseTracker.Phase.WORLDS);
+    }
+
+    @Inject(method = "tickWorlds", at = @At("RETURN"))
+    private void onTickWorldsEnd(final BooleanSupplier shouldKeepTicking, final CallbackInfo ci) {
+        tickPhaseTracker.exit(TickPhaseTracker.Phase.WORLDS);
+    }
+
+    @Inject(method = "runTasksTillTickEnd", at = @At("HEAD"))
+    private void onRunTasksTillTickEndStart(final CallbackInfo ci) {
+        headroomTracker.enterBetweenTicks();
+    }
+
+    @Inject(method = "runTasksTillTickEnd", at = @At("RETURN"))
+    private void onRunTasksTillTickEndEnd(final CallbackInfo ci) {
+        headroomTracker.exitBetweenTicks();
+    }
+
+    // The descriptor keeps the injection off the synthetic executeTask(Runnable) bridge method.
+    @Inject(method = "executeTask(Lnet/minecraft/server/ServerTask;)V", at = @At("HEAD"))
+    private void onExecuteTaskStart(final ServerTask serverTask, final CallbackInfo ci) {
+        final ServerTaskAccessor serverTaskAccessor = (ServerTaskAccessor) serverTask;
+        taskQueueTracker.submitTaskStart(serverTaskAccessor.getOriginId(), serverTaskAccessor.getEnqueueTimeNS(),
+            ((MinecraftServer) (Object) this).getTaskCount());
+        tickPhaseTracker.enter(TickPhaseTracker.Phase.TASKS);
+    }
+
+    @Inject(method = "executeTask(Lnet/minecraft/server/ServerTask;)V", at = @At("RETURN"))
+    private void onExecuteTaskEnd(final ServerTask serverTask, final CallbackInfo ci) {
+        tickPhaseTracker.exit(TickPhaseTracker.Phase.TASKS);
     }
 
     public float mcServerAnalytics$getTPS5s() {
-        return tickTimesNS5s.getTPS();
+        return tickInfoTracker.getTPS(5);
     }
 
     public float mcServerAnalytics$getTPS15s() {
-        return tickTimesNS15s.getTPS();
+        return tickInfoTracker.getTPS(15);
     }
 
     public float mcServerAnalytics$getTPS1m() {
-        return tickTimesNS1m.getTPS();
+        return tickInfoTracker.getTPS(60);
     }
 
     public float mcServerAnalytics$getTPS5m() {
-        return tickTimesNS5m.getTPS();
+        return tickInfoTracker.getTPS(60 * 5);
     }
 
     public float mcServerAnalytics$getTPS15m() {
-        return tickTimesNS15m.getTPS();
+        return tickInfoTracker.getTPS(60 * 15);
     }
 
     public float mcServerAnalytics$getMSPT5s() {
-        return tickTimesNS5s.getMSPT();
+        return tickInfoTracker.getMSPT(5);
     }
 
     public float mcServerAnalytics$getMSPT15s() {
-        return tickTimesNS15s.getMSPT();
+        return tickInfoTracker.getMSPT(15);
     }
 
     public float mcServerAnalytics$getMSPT1m() {
-        return tickTimesNS1m.getMSPT();
+        return tickInfoTracker.getMSPT(60);
     }
 
     public float mcServerAnalytics$getMSPT5m() {
-        return tickTimesNS5m.getMSPT();
+        return tickInfoTracker.getMSPT(60 * 5);
     }
 
     public float mcServerAnalytics$getMSPT15m() {
-        return tickTimesNS15m.getMSPT();
+        return tickInfoTracker.getMSPT(60 * 15);
+    }
+
+    public float mcServerAnalytics$getMSPTPercentile5s(final double percentile) {
+        return tickInfoTracker.getMSPTPercentile(5, percentile);
+    }
+
+    public float mcServerAnalytics$getMSPTPercentile15s(final double percentile) {
+        return tickInfoTracker.getMSPTPercentile(15, percentile);
+    }
+
+    public float mcServerAnalytics$getMSPTPercentile1m(final double percentile) {
+        return tickInfoTracker.getMSPTPercentile(60, percentile);
+    }
+
+    public float mcServerAnalytics$getMSPTPercentile5m(final double percentile) {
+        return tickInfoTracker.getMSPTPercentile(60 * 5, percentile);
+    }
+
+    public float mcServerAnalytics$getMSPTPercentile15m(final double percentile) {
+        return tickInfoTracker.getMSPTPercentile(60 * 15, percentile);
+    }
+
+    public float mcServerAnalytics$getHeadroomPercent(final int secondsToTrack) {
+        return headroomTracker.getHeadroomPercent(secondsToTrack);
+    }
+
+    public float mcServerAnalytics$getServerThreadUtilizationPercent(final int secondsToTrack) {
+        return headroomTracker.getUtilizationPercent(secondsToTrack);
+    }
+
+    public TickInfoTracker mcServerAnalytics$getTickInfoTracker() {
+        return tickInfoTracker;
+    }
+
+    public TickInfoTracker mcServerAnalytics$getTickInfoTracker(final RegistryKey<World> dimension) {
+        final ServerWorld world = ((MinecraftServer) (Object) this).getWorld(dimension);
+        return world != null ? ((ServerWorldAccessor) world).getTickInfoTracker() : null;
+    }
+
+    public TickPhaseTracker mcServerAnalytics$getTickPhaseTracker() {
+        return tickPhaseTracker;
+    }
+
+    public TickCostTracker mcServerAnalytics$getEntityCostTracker() {
+        return entityCostTracker;
+    }
+
+    public TickCostTracker mcServerAnalytics$getBlockEntityCostTracker() {
+        return blockEntityCostTracker;
+    }
+
+    public HeadroomTracker mcServerAnalytics$getHeadroomTracker() {
+        return headroomTracker;
+    }
+
+    public TaskQueueTracker mcServerAnalytics$getTaskQueueTracker() {
+        return taskQueueTracker;
     }
 }
\ No newline at end of file
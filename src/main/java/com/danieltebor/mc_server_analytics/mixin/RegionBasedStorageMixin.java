@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.tracker.RegionIoTracker;
+
+import java.nio.file.Path;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.storage.RegionBasedStorage;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(RegionBasedStorage.class)
+public abstract class RegionBasedStorageMixin {
+    @Shadow @Final private Path directory;
+
+    // The storage's IO worker runs one operation at a time.
+    private long readStartTimeNS;
+    private long writeStartTimeNS;
+    private RegionIoTracker.RegionIoStats regionIoStats;
+
+    @Inject(method = "getTagAt", at = @At("HEAD"))
+    private void onGetTagAtStart(final ChunkPos pos, final CallbackInfoReturnable<NbtCompound> cir) {
+        readStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "getTagAt", at = @At("RETURN"))
+    private void onGetTagAtEnd(final ChunkPos pos, final CallbackInfoReturnable<NbtCompound> cir) {
+        final RegionIoTracker.RegionIoStats regionIoStats = getRegionIoStats();
+        if (regionIoStats != null && cir.getReturnValue() != null) {
+            regionIoStats.submitTotalTime(RegionIoTracker.Operation.READ, System.nanoTime() - readStartTimeNS);
+        }
+    }
+
+    @Inject(method = "write", at = @At("HEAD"))
+    private void onWriteStart(final ChunkPos pos, final NbtCompound nbt, final CallbackInfo ci) {
+        writeStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "write", at = @At("RETURN"))
+    private void onWriteEnd(final ChunkPos pos, final NbtCompound nbt, final CallbackInfo ci) {
+        final RegionIoTracker.RegionIoStats regionIoStats = getRegionIoStats();
+        if (regionIoStats != null && nbt != null) {
+            regionIoStats.submitTotalTime(RegionIoTracker.Operation.WRITE, System.nanoTime() - writeStartTimeNS);
+        }
+    }
+
+    @Unique
+    private RegionIoTracker.RegionIoStats getRegionIoStats() {
+        // The mod is only initialized on dedicated servers, but the mixin also applies to integrated servers.
+        final MCServerAnalytics mcServerAnalytics = MCServerAnalytics.getInstance();
+        if (regionIoStats == null && mcServerAnalytics != null) {
+            regionIoStats = mcServerAnalytics.getRegionIoTracker().getStats(directory);
+        }
+        return regionIoStats;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.tracker.RegionIoTracker;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.storage.RegionFile;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(RegionFile.class)
+public abstract class RegionFileMixin {
+    @Shadow @Final private Path directory;
+    @Shadow @Final private IntBuffer sectorData;
+
+    @Shadow
+    private Path getExternalChunkPath(final ChunkPos chunkPos) {
+        throw new AssertionError();
+    }
+
+    // Both hooked methods are synchronized, so a start time can't be overwritten before it is used.
+    private long readStartTimeNS;
+    private long writeStartTimeNS;
+    private long writeBytes;
+    private boolean isReadExternal;
+    private RegionIoTracker.RegionIoStats regionIoStats;
+
+    @Inject(method = "getChunkInputStream", at = @At("HEAD"))
+    private void onGetChunkInputStreamStart(final ChunkPos pos, final CallbackInfoReturnable<DataInputStream> cir) {
+        isReadExternal = false;
+        readStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "decompress(Lnet/minecraft/util/math/ChunkPos;B)Ljava/io/DataInputStream;", at = @At("HEAD"))
+    private void onDecompressExternal(final ChunkPos pos, final byte flags, final CallbackInfoReturnable<DataInputStream> cir) {
+        isReadExternal = true;
+    }
+
+    @Inject(method = "getChunkInputStream", at = @At("RETURN"))
+    private void onGetChunkInputStreamEnd(final ChunkPos pos, final CallbackInfoReturnable<DataInputStream> cir) {
+        final RegionIoTracker.RegionIoStats regionIoStats = getRegionIoStats();
+        if (regionIoStats == null || cir.getReturnValue() == null) {
+            return;
+        }
+
+        final long readTimeNS = System.nanoTime() - readStartTimeNS;
+        // The low byte of a chunk's location is the number of 4KiB sectors read for it.
+        long bytes = (sectorData.get(pos.getRegionRelativeX() + pos.getRegionRelativeZ() * 32) & 0xFF) * 4096L;
+        if (isReadExternal) {
+            // Oversized chunks are stored in their own .mcc file, which the returned stream reads later
+            // on, so its size is counted here but its read time falls under total time.
+            try {
+                bytes = Files.size(getExternalChunkPath(pos));
+            } catch (IOException e) {
+                // Keep the sector count if the file disappeared after the stream opened it.
+            }
+        }
+        regionIoStats.submitDiskTime(RegionIoTracker.Operation.READ, readTimeNS, bytes);
+    }
+
+    @Inject(method = "writeChunk", at = @At("HEAD"))
+    private void onWriteChunkStart(final ChunkPos pos, final ByteBuffer buf, final CallbackInfo ci) {
+        writeBytes = buf.remaining();
+        writeStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "writeChunk", at = @At("RETURN"))
+    private void onWriteChunkEnd(final ChunkPos pos, final ByteBuffer buf, final CallbackInfo ci) {
+        final RegionIoTracker.RegionIoStats regionIoStats = getRegionIoStats();
+        if (regionIoStats != null) {
+            regionIoStats.submitDiskTime(RegionIoTracker.Operation.WRITE, System.nanoTime() - writeStartTimeNS, writeBytes);
+        }
+    }
+
+    @Unique
+    private RegionIoTracker.RegionIoStats getRegionIoStats() {
+        // The mod is only initialized on dedicated servers, but the mixin also applies to integrated servers.
+        final MCServerAnalytics mcServerAnalytics = MCServerAnalytics.getInstance();
+        if (regionIoStats == null && mcServerAnalytics != null) {
+            regionIoStats = mcServerAnalytics.getRegionIoTracker().getStats(directory);
+        }
+        return regionIoStats;
+    }
+}
\ No newline at end of file
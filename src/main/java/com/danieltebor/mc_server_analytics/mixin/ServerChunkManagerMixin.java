@@ -22,14 +22,30 @@
 
 package com.danieltebor.mc_server_analytics.mixin;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.function.BooleanSupplier;
+
 import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ChunkTicket;
+import net.minecraft.server.world.ChunkTicketManager;
 import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.collection.SortedArraySet;
 
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Implements;
 import org.spongepowered.asm.mixin.Interface;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
 import com.danieltebor.mc_server_analytics.accessor.ServerChunkManagerAccessor;
+import com.danieltebor.mc_server_analytics.tracker.TickPhaseTracker;
 
 /**
  * @author Daniel Tebor
@@ -37,7 +53,32 @@ import com.danieltebor.mc_server_analytics.accessor.ServerChunkManagerAccessor;
 @Mixin(ServerChunkManager.class)
 @Implements({@Interface(iface = ServerChunkManagerAccessor.class, prefix = "mcServerAnalytics$")})
 public abstract class ServerChunkManagerMixin {
+    @Shadow @Final private ChunkTicketManager ticketManager;
+
+    @Inject(method = "tick(Ljava/util/function/BooleanSupplier;Z)V", at = @At("HEAD"))
+    private void onTickStart(final BooleanSupplier shouldKeepTicking, final boolean tickChunks, final CallbackInfo ci) {
+        getTickPhaseTracker().enter(TickPhaseTracker.Phase.CHUNK_MANAGER);
+    }
+
+    @Inject(method = "tick(Ljava/util/function/BooleanSupplier;Z)V", at = @At("RETURN"))
+    private void onTickEnd(final BooleanSupplier shouldKeepTicking, final boolean tickChunks, final CallbackInfo ci) {
+        getTickPhaseTracker().exit(TickPhaseTracker.Phase.CHUNK_MANAGER);
+    }
+
     public Iterable<ChunkHolder> mcServerAnalytics$getChunkHolderEntryIterator() {
         return ((ThreadedAnvilChunkStorageInvoker) ((ServerChunkManager)(Object)this).threadedAnvilChunkStorage).invokeEntryIterator();
     }
+
+    public ChunkHolder mcServerAnalytics$getCurrentChunkHolder(final long pos) {
+        return ((ThreadedAnvilChunkStorageInvoker) ((ServerChunkManager)(Object)this).threadedAnvilChunkStorage).invokeGetCurrentChunkHolder(pos);
+    }
+
+    public Long2ObjectOpenHashMap<SortedArraySet<ChunkTicket<?>>> mcServerAnalytics$getTicketsByPosition() {
+        return ((ChunkTicketManagerAccessor) ticketManager).getTicketsByPosition();
+    }
+
+    @Unique
+    private TickPhaseTracker getTickPhaseTracker() {
+        return ((MinecraftServerAccessor) ((ServerWorld) ((ServerChunkManager) (Object) this).getWorld()).getServer()).getTickPhaseTracker();
+    }
 }
\ No newline at end of file
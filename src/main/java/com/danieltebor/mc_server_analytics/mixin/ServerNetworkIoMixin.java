@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.tracker.TickPhaseTracker;
+
+import net.minecraft.server.ServerNetworkIo;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(ServerNetworkIo.class)
+public abstract class ServerNetworkIoMixin {
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void onTickStart(final CallbackInfo ci) {
+        ((MinecraftServerAccessor) ((ServerNetworkIo) (Object) this).getServer()).getTickPhaseTracker().enter(TickPhaseTracker.Phase.NETWORK);
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void onTickEnd(final CallbackInfo ci) {
+        ((MinecraftServerAccessor) ((ServerNetworkIo) (Object) this).getServer()).getTickPhaseTracker().exit(TickPhaseTracker.Phase.NETWORK);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerTaskAccessor;
+
+import net.minecraft.server.ServerTask;
+
+import org.spongepowered.asm.mixin.Implements;
+import org.spongepowered.asm.mixin.Interface;
+import org.spongepowered.asm.mixin.Mixin;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(ServerTask.class)
+@Implements({@Interface(iface = ServerTaskAccessor.class, prefix = "mcServerAnalytics$")})
+public abstract class ServerTaskMixin {
+    // Written by the enqueueing thread before the task is queued, so the queue publishes them to the server thread.
+    private long enqueueTimeNS = -1;
+    private int originId = -1;
+
+    public long mcServerAnalytics$getEnqueueTimeNS() {
+        return enqueueTimeNS;
+    }
+
+    public int mcServerAnalytics$getOriginId() {
+        return originId;
+    }
+
+    public void mcServerAnalytics$markEnqueued(final int originId) {
+        this.enqueueTimeNS = System.nanoTime();
+        this.originId = originId;
+    }
+}
\ No newline at end of file
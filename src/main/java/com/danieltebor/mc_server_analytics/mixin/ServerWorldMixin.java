@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+import com.danieltebor.mc_server_analytics.tracker.ChunkChurnTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkCountTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkHotspotTracker;
+import com.danieltebor.mc_server_analytics.tracker.ChunkLoadTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityCensusTracker;
+import com.danieltebor.mc_server_analytics.tracker.EntityPopulationTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickCostTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickInfoTracker;
+import com.danieltebor.mc_server_analytics.tracker.TickPhaseTracker;
+
+import java.util.function.BooleanSupplier;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.chunk.WorldChunk;
+
+import org.spongepowered.asm.mixin.Implements;
+import org.spongepowered.asm.mixin.Interface;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(ServerWorld.class)
+@Implements({@Interface(iface = ServerWorldAccessor.class, prefix = "mcServerAnalytics$")})
+public abstract class ServerWorldMixin {
+    private final TickInfoTracker tickInfoTracker = new TickInfoTracker();
+    private final ChunkHotspotTracker chunkHotspotTracker = new ChunkHotspotTracker();
+    private final ChunkCountTracker chunkCountTracker = new ChunkCountTracker();
+    private final ChunkLoadTracker chunkLoadTracker = new ChunkLoadTracker();
+    private final ChunkChurnTracker chunkChurnTracker = new ChunkChurnTracker();
+    private final EntityCensusTracker entityCensusTracker = new EntityCensusTracker();
+    private final EntityPopulationTracker entityPopulationTracker = new EntityPopulationTracker();
+    private long tickStartTimeNS;
+    private long entityTickStartTimeNS;
+    private long chunkTickStartTimeNS;
+
+    @Inject(method = "tick(Ljava/util/function/BooleanSupplier;)V", at = @At("HEAD"))
+    private void onTickStart(final BooleanSupplier shouldKeepTicking, final CallbackInfo ci) {
+        getTickPhaseTracker().enter(TickPhaseTracker.Phase.WORLD);
+        tickStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "tick(Ljava/util/function/BooleanSupplier;)V", at = @At("RETURN"))
+    private void onTickEnd(final BooleanSupplier shouldKeepTicking, final CallbackInfo ci) {
+        tickInfoTracker.submitTickTimeNS(System.nanoTime() - tickStartTimeNS);
+        chunkHotspotTracker.submitTick();
+        chunkLoadTracker.submitTick();
+        chunkChurnTracker.submitTick();
+        entityPopulationTracker.submitTick(entityCensusTracker);
+        getTickPhaseTracker().exit(TickPhaseTracker.Phase.WORLD);
+    }
+
+    @Inject(method = "tickEntity(Lnet/minecraft/entity/Entity;)V", at = @At("HEAD"))
+    private void onTickEntityStart(final Entity entity, final CallbackInfo ci) {
+        getTickPhaseTracker().enter(TickPhaseTracker.Phase.ENTITIES);
+        entityTickStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "tickEntity(Lnet/minecraft/entity/Entity;)V", at = @At("RETURN"))
+    private void onTickEntityEnd(final Entity entity, final CallbackInfo ci) {
+        // Passengers are ticked within their vehicle's tickEntity call, so they count towards the vehicle's type.
+        final long entityTickTimeNS = System.nanoTime() - entityTickStartTimeNS;
+        getEntityCostTracker().submit(Registries.ENTITY_TYPE.getRawId(entity.getType()), entityTickTimeNS);
+        chunkHotspotTracker.submit(entity.getChunkPos().toLong(), ChunkHotspotTracker.Source.ENTITIES, entityTickTimeNS);
+        getTickPhaseTracker().exit(TickPhaseTracker.Phase.ENTITIES);
+    }
+
+    @Inject(method = "tickChunk(Lnet/minecraft/world/chunk/WorldChunk;I)V", at = @At("HEAD"))
+    private void onTickChunkStart(final WorldChunk chunk, final int randomTickSpeed, final CallbackInfo ci) {
+        chunkTickStartTimeNS = System.nanoTime();
+    }
+
+    @Inject(method = "tickChunk(Lnet/minecraft/world/chunk/WorldChunk;I)V", at = @At("RETURN"))
+    private void onTickChunkEnd(final WorldChunk chunk, final int randomTickSpeed, final CallbackInfo ci) {
+        chunkHotspotTracker.submit(chunk.getPos().toLong(), ChunkHotspotTracker.Source.CHUNK_TICKS,
+            System.nanoTime() - chunkTickStartTimeNS);
+    }
+
+    public TickInfoTracker mcServerAnalytics$getTickInfoTracker() {
+        return tickInfoTracker;
+    }
+
+    public ChunkHotspotTracker mcServerAnalytics$getChunkHotspotTracker() {
+        return chunkHotspotTracker;
+    }
+
+    public ChunkCountTracker mcServerAnalytics$getChunkCountTracker() {
+        return chunkCountTracker;
+    }
+
+    public ChunkLoadTracker mcServerAnalytics$getChunkLoadTracker() {
+        return chunkLoadTracker;
+    }
+
+    public ChunkChurnTracker mcServerAnalytics$getChunkChurnTracker() {
+        return chunkChurnTracker;
+    }
+
+    public EntityCensusTracker mcServerAnalytics$getEntityCensusTracker() {
+        return entityCensusTracker;
+    }
+
+    public EntityPopulationTracker mcServerAnalytics$getEntityPopulationTracker() {
+        return entityPopulationTracker;
+    }
+
+    @Unique
+    private TickCostTracker getEntityCostTracker() {
+        return ((MinecraftServerAccessor) ((ServerWorld) (Object) this).getServer()).getEntityCostTracker();
+    }
+
+    @Unique
+    private TickPhaseTracker getTickPhaseTracker() {
+        return ((MinecraftServerAccessor) ((ServerWorld) (Object) this).getServer()).getTickPhaseTracker();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.mixin;
+
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.accessor.ServerTaskAccessor;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.thread.ThreadExecutor;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * @author Daniel Tebor
+ */
+@Mixin(ThreadExecutor.class)
+public abstract class ThreadExecutorMixin {
+
+    @Inject(method = "send(Ljava/lang/Runnable;)V", at = @At("HEAD"))
+    private void onSend(final Runnable task, final CallbackInfo ci) {
+        if ((Object) this instanceof MinecraftServer && task instanceof ServerTaskAccessor) {
+            ((ServerTaskAccessor) task).markEnqueued(
+                ((MinecraftServerAccessor) this).getTaskQueueTracker().getCurrentThreadOriginId());
+        }
+    }
+
+    // Every thread executor waits here, so only the server's waits are tracked.
+    @Inject(method = "waitForTasks()V", at = @At("HEAD"))
+    private void onWaitForTasksStart(final CallbackInfo ci) {
+        if ((Object) this instanceof MinecraftServer) {
+            ((MinecraftServerAccessor) this).getHeadroomTracker().startWaiting();
+        }
+    }
+
+    @Inject(method = "waitForTasks()V", at = @At("RETURN"))
+    private void onWaitForTasksEnd(final CallbackInfo ci) {
+        if ((Object) this instanceof MinecraftServer) {
+            ((MinecraftServerAccessor) this).getHeadroomTracker().stopWaiting();
+        }
+    }
+}
\ No newline at end of file
@@ -35,4 +35,7 @@ import org.spongepowered.asm.mixin.gen.Invoker;
 public interface ThreadedAnvilChunkStorageInvoker {
     @Invoker("entryIterator")
     public Iterable<ChunkHolder> invokeEntryIterator();
+
+    @Invoker("getCurrentChunkHolder")
+    public ChunkHolder invokeGetCurrentChunkHolder(final long pos);
 }
\ No newline at end of file
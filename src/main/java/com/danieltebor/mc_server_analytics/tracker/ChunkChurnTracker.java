@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.util.DecayingLongMap;
+
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Counts chunk loads and unloads per region of 32x32 chunks, keyed by packed region position, and
+ * loads per chunk, keyed by packed chunk position. A load of a chunk that was loaded within the
+ * last few minutes also counts as a reload, so regions whose chunks thrash rank above regions
+ * that are only being explored. Counts decay with the same half-life as the tick count, so their
+ * ratio is a rate that favors the recent past.
+ * 
+ * All methods must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class ChunkChurnTracker {
+
+    public static enum Event {
+
+        LOADS("Loads"),
+        RELOADS("Reloads"),
+        UNLOADS("Unloads");
+
+        private final String name;
+
+        Event(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public final static int HALF_LIFE_SECONDS = 60;
+    public final static long NO_CHUNK = Long.MAX_VALUE;
+
+    private final static int TICKS_PER_DECAY = TickInfoTracker.DESIRED_TPS;
+    private final static int TICKS_PER_MINUTE = TickInfoTracker.DESIRED_TPS * 60;
+    private final static double DECAY_FACTOR = Math.pow(0.5, 1.0 / HALF_LIFE_SECONDS);
+    // Counts are fixed point so they can decay through fractions of an event.
+    private final static long SCALE = 1000;
+    // A chunk's load is forgotten after three half-lives, so only loads within about 3m count as reloads.
+    private final static long MIN_COUNT = SCALE / 8;
+    private final static int ALERT_COOLDOWN_TICKS = TICKS_PER_MINUTE * 5;
+
+    private final DecayingLongMap regionCounts = new DecayingLongMap(Event.values().length);
+    private final DecayingLongMap chunkLoadCounts = new DecayingLongMap(1);
+    private double decayedTickCount = 0;
+    private int ticksSinceDecay = 0;
+    private long tickCount = 0;
+    private long lastAlertTick = -ALERT_COOLDOWN_TICKS;
+
+    public void onChunkLoad(final long chunkPos) {
+        final long regionPos = getRegionPos(chunkPos);
+
+        if (chunkLoadCounts.get(chunkPos, 0) > 0) {
+            regionCounts.add(regionPos, Event.RELOADS.ordinal(), SCALE);
+        }
+        chunkLoadCounts.add(chunkPos, 0, SCALE);
+        regionCounts.add(regionPos, Event.LOADS.ordinal(), SCALE);
+    }
+
+    public void onChunkUnload(final long chunkPos) {
+        regionCounts.add(getRegionPos(chunkPos), Event.UNLOADS.ordinal(), SCALE);
+    }
+
+    public void submitTick() {
+        decayedTickCount++;
+        tickCount++;
+
+        if (++ticksSinceDecay == TICKS_PER_DECAY) {
+            ticksSinceDecay = 0;
+            regionCounts.decay(DECAY_FACTOR, MIN_COUNT);
+            chunkLoadCounts.decay(DECAY_FACTOR, MIN_COUNT);
+            decayedTickCount *= DECAY_FACTOR;
+        }
+    }
+
+    /**
+     * Returns the chunk loaded the most times per minute if it was loaded at least minLoadsPerMinute
+     * times and no chunk was returned in the last 5m, or {@link #NO_CHUNK} otherwise.
+     */
+    public long pollChurningChunk(final double minLoadsPerMinute) {
+        // Rates are inflated until a minute of ticks has been counted.
+        if (decayedTickCount < TICKS_PER_MINUTE || tickCount - lastAlertTick < ALERT_COOLDOWN_TICKS) {
+            return NO_CHUNK;
+        }
+
+        final long[] topChunks = chunkLoadCounts.getTopKeys(1);
+        if (topChunks.length == 0 || getChunkLoadsPerMinute(topChunks[0]) < minLoadsPerMinute) {
+            return NO_CHUNK;
+        }
+
+        lastAlertTick = tickCount;
+        return topChunks[0];
+    }
+
+    /**
+     * Returns the packed positions of up to n regions with the most loads, reloads, and unloads, most first.
+     */
+    public long[] getTopRegions(final int n) {
+        return regionCounts.getTopKeys(n);
+    }
+
+    public float getChurnPerMinute(final long regionPos) {
+        return toPerMinute(regionCounts.getTotal(regionPos));
+    }
+
+    public float getEventsPerMinute(final long regionPos, final Event event) {
+        return toPerMinute(regionCounts.get(regionPos, event.ordinal()));
+    }
+
+    public float getChunkLoadsPerMinute(final long chunkPos) {
+        return toPerMinute(chunkLoadCounts.get(chunkPos, 0));
+    }
+
+    public int getTrackedRegionCount() {
+        return regionCounts.size();
+    }
+
+    public static long getRegionPos(final long chunkPos) {
+        return ChunkPos.toLong(ChunkPos.getPackedX(chunkPos) >> 5, ChunkPos.getPackedZ(chunkPos) >> 5);
+    }
+
+    private float toPerMinute(final long count) {
+        return decayedTickCount > 0 ? (float) (count / (double) SCALE / decayedTickCount * TICKS_PER_MINUTE) : 0;
+    }
+}
\ No newline at end of file
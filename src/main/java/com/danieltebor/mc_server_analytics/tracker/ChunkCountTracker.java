@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import net.minecraft.server.world.ChunkHolder;
+
+/**
+ * Counts a world's loaded and ticking chunks as chunks load and unload and as chunk holders change
+ * level type, so reading the counts never walks the world's chunk holders. Ticking chunks are those at
+ * the block ticking level or above, which includes the entity ticking chunks.
+ * 
+ * All methods except the getters must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class ChunkCountTracker {
+
+    private volatile int loadedChunkCount = 0;
+    private volatile int tickingChunkCount = 0;
+    private volatile int entityTickingChunkCount = 0;
+
+    public void onChunkLoad() {
+        loadedChunkCount++;
+    }
+
+    public void onChunkUnload() {
+        loadedChunkCount--;
+    }
+
+    public void onLevelTypeChange(final ChunkHolder.LevelType lastLevelType, final ChunkHolder.LevelType levelType) {
+        tickingChunkCount += countDelta(lastLevelType, levelType, ChunkHolder.LevelType.TICKING);
+        entityTickingChunkCount += countDelta(lastLevelType, levelType, ChunkHolder.LevelType.ENTITY_TICKING);
+    }
+
+    private static int countDelta(final ChunkHolder.LevelType lastLevelType,
+                                  final ChunkHolder.LevelType levelType,
+                                  final ChunkHolder.LevelType countedLevelType) {
+        return (levelType.isAfter(countedLevelType) ? 1 : 0) - (lastLevelType.isAfter(countedLevelType) ? 1 : 0);
+    }
+
+    public int getLoadedChunkCount() {
+        return loadedChunkCount;
+    }
+
+    public int getTickingChunkCount() {
+        return tickingChunkCount;
+    }
+
+    public int getEntityTickingChunkCount() {
+        return entityTickingChunkCount;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.util.DecayingLongMap;
+
+/**
+ * Attributes tick time to the chunks it was spent in, keyed by packed chunk position. Costs and
+ * the tick count decay with the same half-life, so their ratio is an average time per tick that
+ * favors the recent past, and chunks that stop costing anything eventually drop out.
+ * 
+ * All methods must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class ChunkHotspotTracker {
+
+    public static enum Source {
+
+        ENTITIES("Entities"),
+        BLOCK_ENTITIES("Block Entities"),
+        CHUNK_TICKS("Random Ticks");
+
+        private final String name;
+
+        Source(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public final static int HALF_LIFE_SECONDS = 30;
+
+    private final static int TICKS_PER_DECAY = TickInfoTracker.DESIRED_TPS;
+    private final static double DECAY_FACTOR = Math.pow(0.5, 1.0 / HALF_LIFE_SECONDS);
+    private final static long MIN_COST_NS = 10000;
+
+    private final DecayingLongMap chunkCostsNS = new DecayingLongMap(Source.values().length);
+    private double decayedTickCount = 0;
+    private int ticksSinceDecay = 0;
+
+    public void submit(final long chunkPos, final Source source, final long timeNS) {
+        chunkCostsNS.add(chunkPos, source.ordinal(), timeNS);
+    }
+
+    public void submitTick() {
+        decayedTickCount++;
+
+        if (++ticksSinceDecay == TICKS_PER_DECAY) {
+            ticksSinceDecay = 0;
+            chunkCostsNS.decay(DECAY_FACTOR, MIN_COST_NS);
+            decayedTickCount *= DECAY_FACTOR;
+        }
+    }
+
+    /**
+     * Returns the packed positions of up to n chunks with the highest cost, highest first.
+     */
+    public long[] getTopChunks(final int n) {
+        return chunkCostsNS.getTopKeys(n);
+    }
+
+    public float getMSPT(final long chunkPos) {
+        return decayedTickCount > 0 ? (float) (chunkCostsNS.getTotal(chunkPos) / 1000000.0 / decayedTickCount) : 0;
+    }
+
+    public float getMSPT(final long chunkPos, final Source source) {
+        return decayedTickCount > 0 ? (float) (chunkCostsNS.get(chunkPos, source.ordinal()) / 1000000.0 / decayedTickCount) : 0;
+    }
+
+    public int getTrackedChunkCount() {
+        return chunkCostsNS.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerChunkManagerAccessor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ChunkTicket;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.collection.SortedArraySet;
+import net.minecraft.world.chunk.ChunkStatus;
+
+/**
+ * A copy of the levels and statuses of a world's chunk holders and the types of its chunk tickets.
+ * Taking a snapshot only copies primitives and references on the server thread, so building its
+ * {@link Summary} can be left to another thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class ChunkLevelSnapshot {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int[] levels;
+    private final ChunkStatus[] statuses;
+    private final int holderCount;
+    private final ChunkTicketType<?>[] ticketTypes;
+    private final int ticketCount;
+    private final int forcedChunkCount;
+
+    private ChunkLevelSnapshot(final int[] levels, final ChunkStatus[] statuses, final int holderCount,
+                               final ChunkTicketType<?>[] ticketTypes, final int ticketCount, final int forcedChunkCount) {
+        this.levels = levels;
+        this.statuses = statuses;
+        this.holderCount = holderCount;
+        this.ticketTypes = ticketTypes;
+        this.ticketCount = ticketCount;
+        this.forcedChunkCount = forcedChunkCount;
+    }
+
+    /**
+     * Must only be called from the server thread.
+     */
+    public static ChunkLevelSnapshot take(final ServerWorld world) {
+        final ServerChunkManagerAccessor serverChunkManagerAccessor = (ServerChunkManagerAccessor) world.getChunkManager();
+
+        int[] levels = new int[INITIAL_CAPACITY];
+        ChunkStatus[] statuses = new ChunkStatus[INITIAL_CAPACITY];
+        int holderCount = 0;
+        for (final ChunkHolder chunkHolder : serverChunkManagerAccessor.getChunkHolderEntryIterator()) {
+            if (holderCount == levels.length) {
+                levels = Arrays.copyOf(levels, holderCount * 2);
+                statuses = Arrays.copyOf(statuses, holderCount * 2);
+            }
+            levels[holderCount] = chunkHolder.getLevel();
+            statuses[holderCount] = chunkHolder.getCurrentStatus();
+            holderCount++;
+        }
+
+        ChunkTicketType<?>[] ticketTypes = new ChunkTicketType<?>[INITIAL_CAPACITY];
+        int ticketCount = 0;
+        for (final SortedArraySet<ChunkTicket<?>> tickets : serverChunkManagerAccessor.getTicketsByPosition().values()) {
+            for (final ChunkTicket<?> ticket : tickets) {
+                if (ticketCount == ticketTypes.length) {
+                    ticketTypes = Arrays.copyOf(ticketTypes, ticketCount * 2);
+                }
+                ticketTypes[ticketCount++] = ticket.getType();
+            }
+        }
+
+        return new ChunkLevelSnapshot(levels, statuses, holderCount, ticketTypes, ticketCount, world.getForcedChunks().size());
+    }
+
+    public Summary summarize() {
+        final List<ChunkStatus> orderedStatuses = ChunkStatus.createOrderedList();
+        final int[] levelTypeCounts = new int[ChunkHolder.LevelType.values().length];
+        final int[] statusCounts = new int[orderedStatuses.size()];
+
+        for (int i = 0; i < holderCount; i++) {
+            levelTypeCounts[ChunkHolder.getLevelType(levels[i]).ordinal()]++;
+            // Holders whose first status is still being loaded or generated have no status yet.
+            if (statuses[i] != null) {
+                statusCounts[statuses[i].getIndex()]++;
+            }
+        }
+
+        final Map<ChunkTicketType<?>, int[]> ticketCountsByType = new HashMap<>();
+        for (int i = 0; i < ticketCount; i++) {
+            ticketCountsByType.computeIfAbsent(ticketTypes[i], (key) -> new int[1])[0]++;
+        }
+        final Map<String, Integer> ticketCounts = new LinkedHashMap<>();
+        ticketCountsByType.entrySet().stream()
+            .sorted((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]))
+            .forEach((entry) -> ticketCounts.put(entry.getKey().toString(), entry.getValue()[0]));
+
+        final Map<String, Integer> statusCountsByName = new LinkedHashMap<>();
+        for (int i = statusCounts.length - 1; i >= 0; i--) {
+            if (statusCounts[i] != 0) {
+                statusCountsByName.put(orderedStatuses.get(i).getId(), statusCounts[i]);
+            }
+        }
+
+        return new Summary(holderCount, forcedChunkCount, levelTypeCounts, statusCountsByName, ticketCount, ticketCounts);
+    }
+
+    public static final class Summary {
+        private final int holderCount;
+        private final int forcedChunkCount;
+        private final int[] levelTypeCounts;
+        private final Map<String, Integer> statusCounts;
+        private final int ticketCount;
+        private final Map<String, Integer> ticketCounts;
+
+        private Summary(final int holderCount, final int forcedChunkCount, final int[] levelTypeCounts,
+                        final Map<String, Integer> statusCounts, final int ticketCount, final Map<String, Integer> ticketCounts) {
+            this.holderCount = holderCount;
+            this.forcedChunkCount = forcedChunkCount;
+            this.levelTypeCounts = levelTypeCounts;
+            this.statusCounts = statusCounts;
+            this.ticketCount = ticketCount;
+            this.ticketCounts = ticketCounts;
+        }
+
+        public int getHolderCount() {
+            return holderCount;
+        }
+
+        public int getForcedChunkCount() {
+            return forcedChunkCount;
+        }
+
+        public int getLevelTypeCount(final ChunkHolder.LevelType levelType) {
+            return levelTypeCounts[levelType.ordinal()];
+        }
+
+        /**
+         * Returns the number of holders at each status that has any, from the most to the least complete.
+         */
+        public Map<String, Integer> getStatusCounts() {
+            return statusCounts;
+        }
+
+        public int getTicketCount() {
+            return ticketCount;
+        }
+
+        /**
+         * Returns the number of tickets of each type, from the most to the least common.
+         */
+        public Map<String, Integer> getTicketCounts() {
+            return ticketCounts;
+        }
+    }
+}
\ No newline at end of file
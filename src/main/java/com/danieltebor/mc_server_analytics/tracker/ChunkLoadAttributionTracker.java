@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerChunkManagerAccessor;
+import com.danieltebor.mc_server_analytics.util.SliceRing;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ChunkTicket;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.collection.SortedArraySet;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Attributes chunks loaded from disk or generated to players, spawn chunks, forced chunks, or anything
+ * else, like portals and other mods. Each keeps per-minute counts for the last {@value #MAX_MINUTES_TO_TRACK}m,
+ * and players who haven't caused a load for that long are dropped.
+ * 
+ * The cause is the ticket that sets the chunk's level, found by searching outwards from the chunk for
+ * a ticket whose level plus distance matches it. Player tickets don't say which player they are for, so
+ * they go to the nearest player. If no ticket matches, which can happen when tickets change before their
+ * levels propagate, this falls back to a heuristic checking for a forced chunk nearby, then spawn, then
+ * the nearest player within view distance, so these loads may be misattributed.
+ * 
+ * All methods must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class ChunkLoadAttributionTracker {
+
+    public final static int MAX_MINUTES_TO_TRACK = 60;
+
+    // Players' tickets lag behind their movement, so chunks just past view distance are still theirs.
+    private final static int PLAYER_MARGIN_CHUNKS = 2;
+    // Spawn and forced tickets keep full chunks loaded out to these radii.
+    private final static int SPAWN_RADIUS_CHUNKS = 12;
+    private final static int FORCED_RADIUS_CHUNKS = 2;
+
+    private final Map<UUID, Counts> playerCounts = new HashMap<>();
+    private final Counts spawnCounts = new Counts("Spawn", false);
+    private final Counts forcedCounts = new Counts("Forced", false);
+    private final Counts otherCounts = new Counts("Other", false);
+
+    public void submit(final ServerWorld world, final long chunkPos, final ChunkLoadTracker.Source source) {
+        final int chunkX = ChunkPos.getPackedX(chunkPos);
+        final int chunkZ = ChunkPos.getPackedZ(chunkPos);
+
+        final ChunkTicketType<?> ticketType = findTicketType(world, chunkX, chunkZ);
+        if (ticketType == ChunkTicketType.PLAYER) {
+            final ServerPlayerEntity nearestPlayer = getNearestPlayer(world, chunkX, chunkZ, Integer.MAX_VALUE);
+            if (nearestPlayer != null) {
+                submitPlayer(nearestPlayer, source);
+            } else {
+                otherCounts.submit(source);
+            }
+        } else if (ticketType == ChunkTicketType.FORCED) {
+            forcedCounts.submit(source);
+        } else if (ticketType == ChunkTicketType.START) {
+            spawnCounts.submit(source);
+        } else if (ticketType != null) {
+            otherCounts.submit(source);
+        } else if (isNearForcedChunk(world, chunkX, chunkZ)) {
+            forcedCounts.submit(source);
+        } else if (isNearSpawn(world, chunkX, chunkZ)) {
+            spawnCounts.submit(source);
+        } else {
+            final ServerPlayerEntity nearestPlayer = getNearestPlayer(world, chunkX, chunkZ,
+                world.getServer().getPlayerManager().getViewDistance() + PLAYER_MARGIN_CHUNKS + 1);
+            if (nearestPlayer != null) {
+                submitPlayer(nearestPlayer, source);
+            } else {
+                otherCounts.submit(source);
+            }
+        }
+    }
+
+    private void submitPlayer(final ServerPlayerEntity player, final ChunkLoadTracker.Source source) {
+        final String name = player.getEntityName();
+        final Counts counts = playerCounts.computeIfAbsent(player.getUuid(), (uuid) -> new Counts(name, true));
+        // Players can be renamed between sessions.
+        counts.name = name;
+        counts.submit(source);
+    }
+
+    /**
+     * Returns the counts of each player with loads in the last {@value #MAX_MINUTES_TO_TRACK}m
+     * followed by the counts for spawn chunks, forced chunks, and anything else.
+     */
+    public List<Counts> getCounts() {
+        final List<Counts> counts = new ArrayList<>();
+
+        playerCounts.values().removeIf((playerCount) -> playerCount.getTotal() == 0);
+        counts.addAll(playerCounts.values());
+        for (Counts fixedCounts : new Counts[] {spawnCounts, forcedCounts, otherCounts}) {
+            fixedCounts.minuteSliceRing.advance();
+            counts.add(fixedCounts);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Returns the type of the ticket setting the chunk's level, or null if there's no chunk holder or no
+     * ticket matches its level.
+     */
+    private static ChunkTicketType<?> findTicketType(final ServerWorld world, final int chunkX, final int chunkZ) {
+        final ServerChunkManagerAccessor serverChunkManagerAccessor = (ServerChunkManagerAccessor) world.getChunkManager();
+        final ChunkHolder chunkHolder = serverChunkManagerAccessor.getCurrentChunkHolder(ChunkPos.toLong(chunkX, chunkZ));
+        if (chunkHolder == null) {
+            return null;
+        }
+
+        final Long2ObjectOpenHashMap<SortedArraySet<ChunkTicket<?>>> ticketsByPosition = serverChunkManagerAccessor.getTicketsByPosition();
+        final int level = chunkHolder.getLevel();
+        // Levels grow by one per chunk away from a ticket, so no ticket further than the level can set it.
+        for (int distance = 0; distance <= level; distance++) {
+            for (int dx = -distance; dx <= distance; dx++) {
+                // Only the edges of the square are at this distance.
+                final int dzStep = Math.abs(dx) == distance ? 1 : 2 * distance;
+                for (int dz = -distance; dz <= distance; dz += dzStep) {
+                    final SortedArraySet<ChunkTicket<?>> tickets = ticketsByPosition.get(ChunkPos.toLong(chunkX + dx, chunkZ + dz));
+                    if (tickets == null) {
+                        continue;
+                    }
+
+                    for (ChunkTicket<?> ticket : tickets) {
+                        if (ticket.getLevel() + distance == level) {
+                            return ticket.getType();
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ServerPlayerEntity getNearestPlayer(final ServerWorld world, final int chunkX, final int chunkZ, final int maxDistance) {
+        ServerPlayerEntity nearestPlayer = null;
+        int nearestDistance = maxDistance;
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            final ChunkPos playerChunkPos = player.getChunkPos();
+            final int distance = getDistance(playerChunkPos.x, playerChunkPos.z, chunkX, chunkZ);
+            if (distance < nearestDistance) {
+                nearestPlayer = player;
+                nearestDistance = distance;
+            }
+        }
+        return nearestPlayer;
+    }
+
+    private static boolean isNearSpawn(final ServerWorld world, final int chunkX, final int chunkZ) {
+        if (world.getRegistryKey() != World.OVERWORLD) {
+            return false;
+        }
+
+        final BlockPos spawnPos = world.getSpawnPos();
+        return getDistance(spawnPos.getX() >> 4, spawnPos.getZ() >> 4, chunkX, chunkZ) <= SPAWN_RADIUS_CHUNKS;
+    }
+
+    private static boolean isNearForcedChunk(final ServerWorld world, final int chunkX, final int chunkZ) {
+        final LongIterator iterator = world.getForcedChunks().iterator();
+        while (iterator.hasNext()) {
+            final long forcedChunkPos = iterator.nextLong();
+            if (getDistance(ChunkPos.getPackedX(forcedChunkPos), ChunkPos.getPackedZ(forcedChunkPos), chunkX, chunkZ) <= FORCED_RADIUS_CHUNKS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int getDistance(final int x1, final int z1, final int x2, final int z2) {
+        return Math.max(Math.abs(x1 - x2), Math.abs(z1 - z2));
+    }
+
+    public static final class Counts {
+        private final boolean isPlayer;
+        private final SliceRing minuteSliceRing = new SliceRing(MAX_MINUTES_TO_TRACK * 60, 60, this::clearMinute);
+        private final int[][] minuteCounts = new int[ChunkLoadTracker.Source.values().length][minuteSliceRing.getSliceCount()];
+        private String name;
+
+        private Counts(final String name, final boolean isPlayer) {
+            this.name = name;
+            this.isPlayer = isPlayer;
+        }
+
+        private void clearMinute(final int slot) {
+            for (int[] sourceCounts : minuteCounts) {
+                sourceCounts[slot] = 0;
+            }
+        }
+
+        private void submit(final ChunkLoadTracker.Source source) {
+            minuteCounts[source.ordinal()][minuteSliceRing.advance()]++;
+        }
+
+        private long getTotal() {
+            minuteSliceRing.advance();
+
+            long total = 0;
+            for (ChunkLoadTracker.Source source : ChunkLoadTracker.Source.values()) {
+                total += getCount(source, MAX_MINUTES_TO_TRACK);
+            }
+            return total;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isPlayer() {
+            return isPlayer;
+        }
+
+        /**
+         * Returns the chunks from the source over the minute in progress and the minutes before it,
+         * up to {@value ChunkLoadAttributionTracker#MAX_MINUTES_TO_TRACK}.
+         */
+        public long getCount(final ChunkLoadTracker.Source source, final int minutes) {
+            final int[] sourceCounts = minuteCounts[source.ordinal()];
+
+            long count = 0;
+            for (int i = 0; i < Math.min(minutes, MAX_MINUTES_TO_TRACK) + 1 && minuteSliceRing.getSlot(i) != -1; i++) {
+                count += sourceCounts[minuteSliceRing.getSlot(i)];
+            }
+            return count;
+        }
+    }
+}
\ No newline at end of file
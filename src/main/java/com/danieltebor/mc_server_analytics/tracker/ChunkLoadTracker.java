@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.util.LogLinearHistogram;
+import com.danieltebor.mc_server_analytics.util.SlidingWindowHistogram;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+/**
+ * Measures how long a world's chunks take from first being requested to reaching full status,
+ * separately for chunks loaded from disk and chunks generated because nothing was saved for them.
+ * 
+ * Chunks requested only to support generating their neighbors may never reach full status, so
+ * requests older than {@value #MAX_PENDING_SECONDS}s are swept.
+ * 
+ * All methods must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class ChunkLoadTracker {
+
+    public static enum Source {
+
+        LOADED("Loaded"),
+        GENERATED("Generated");
+
+        private final String name;
+
+        Source(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public final static int MAX_SECONDS_TO_TRACK = 60;
+
+    private final static int SLICE_SECONDS = 10;
+    private final static int MAX_PENDING_SECONDS = 60;
+    private final static long MAX_PENDING_NS = MAX_PENDING_SECONDS * 1000000000L;
+    private final static int SWEEP_INTERVAL_TICKS = TickInfoTracker.DESIRED_TPS * 5;
+
+    private final Long2LongOpenHashMap requestTimesNS = new Long2LongOpenHashMap();
+    private final LongOpenHashSet generatingChunks = new LongOpenHashSet();
+    private final SlidingWindowHistogram[] latencyHistograms = new SlidingWindowHistogram[Source.values().length];
+
+    private int ticksSinceSweep = 0;
+
+    public ChunkLoadTracker() {
+        requestTimesNS.defaultReturnValue(-1);
+        for (int i = 0; i < latencyHistograms.length; i++) {
+            latencyHistograms[i] = new SlidingWindowHistogram(MAX_SECONDS_TO_TRACK, SLICE_SECONDS);
+        }
+    }
+
+    public void onChunkRequested(final long chunkPos) {
+        requestTimesNS.putIfAbsent(chunkPos, System.nanoTime());
+    }
+
+    public void onChunkGenerating(final long chunkPos) {
+        if (requestTimesNS.containsKey(chunkPos)) {
+            generatingChunks.add(chunkPos);
+        }
+    }
+
+    /**
+     * Returns whether the chunk was loaded from disk or generated, or null if its request wasn't tracked.
+     */
+    public Source onChunkLoaded(final long chunkPos) {
+        final long requestTimeNS = requestTimesNS.remove(chunkPos);
+        final boolean wasGenerated = generatingChunks.remove(chunkPos);
+
+        if (requestTimeNS == -1) {
+            return null;
+        }
+
+        final Source source = wasGenerated ? Source.GENERATED : Source.LOADED;
+        latencyHistograms[source.ordinal()].record(System.nanoTime() - requestTimeNS);
+        return source;
+    }
+
+    public void submitTick() {
+        if (++ticksSinceSweep < SWEEP_INTERVAL_TICKS) {
+            return;
+        }
+        ticksSinceSweep = 0;
+
+        final long nowNS = System.nanoTime();
+        final ObjectIterator<Long2LongMap.Entry> iterator = requestTimesNS.long2LongEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            final Long2LongMap.Entry entry = iterator.next();
+            if (nowNS - entry.getLongValue() > MAX_PENDING_NS) {
+                generatingChunks.remove(entry.getLongKey());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the latencies in ns of chunks from the source that reached full status over the
+     * last minute.
+     */
+    public LogLinearHistogram getLatencyHistogram(final Source source) {
+        return latencyHistograms[source.ordinal()].getHistogram();
+    }
+
+    public float getChunksPerSecond(final Source source) {
+        return latencyHistograms[source.ordinal()].getRatePerSecond();
+    }
+
+    public int getPendingChunkCount() {
+        return requestTimesNS.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.passive.PassiveEntity;
+import net.minecraft.registry.Registries;
+
+/**
+ * Counts a world's loaded entities per type, keyed by entity type raw id, and per category, kept
+ * up to date as entities load and unload so reading counts never scans the world. Categories
+ * overlap the same way the classes they test for do, so every passive entity is also a mob and
+ * every mob is also living.
+ * 
+ * All methods must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class EntityCensusTracker {
+
+    public static enum Category {
+
+        PASSIVE("Passive"),
+        MOBS("Hostile"),
+        LIVING("Living"),
+        ITEMS("Items"),
+        OTHER("Other");
+
+        private final String name;
+
+        Category(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final int[] typeCounts = new int[Registries.ENTITY_TYPE.size()];
+    private final int[] categoryCounts = new int[Category.values().length];
+    private int entityCount = 0;
+
+    public void onEntityLoad(final Entity entity) {
+        submit(entity, 1);
+    }
+
+    public void onEntityUnload(final Entity entity) {
+        submit(entity, -1);
+    }
+
+    private void submit(final Entity entity, final int delta) {
+        final int rawId = Registries.ENTITY_TYPE.getRawId(entity.getType());
+        if (rawId >= 0 && rawId < typeCounts.length) {
+            typeCounts[rawId] += delta;
+        }
+
+        if (entity instanceof PassiveEntity) {
+            categoryCounts[Category.PASSIVE.ordinal()] += delta;
+        }
+        if (entity instanceof MobEntity) {
+            categoryCounts[Category.MOBS.ordinal()] += delta;
+        }
+        if (entity instanceof LivingEntity) {
+            categoryCounts[Category.LIVING.ordinal()] += delta;
+        }
+        if (entity instanceof ItemEntity) {
+            categoryCounts[Category.ITEMS.ordinal()] += delta;
+        }
+        if (!(entity instanceof PassiveEntity || entity instanceof MobEntity || entity instanceof ItemEntity)) {
+            categoryCounts[Category.OTHER.ordinal()] += delta;
+        }
+
+        entityCount += delta;
+    }
+
+    public int getCount(final Category category) {
+        return categoryCounts[category.ordinal()];
+    }
+
+    public int getTypeCount(final int rawId) {
+        return typeCounts[rawId];
+    }
+
+    public int getKeyCount() {
+        return typeCounts.length;
+    }
+
+    public int getEntityCount() {
+        return entityCount;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.accessor.ServerWorldAccessor;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * A copy of the block position and type raw id of each of a world's entities. Taking a snapshot
+ * only copies primitives on the server thread, so finding its clusters can be left to another thread.
+ * 
+ * A cluster is the 3x3 chunks around a chunk. Clusters are found by binning entities into a grid
+ * keyed by packed chunk position and greedily taking the densest 3x3 areas that don't overlap.
+ * 
+ * @author Daniel Tebor
+ */
+public final class EntityClusterSnapshot {
+
+    private static final int MIN_CAPACITY = 64;
+    private static final int CLUSTER_RADIUS_CHUNKS = 1;
+    private static final int TOP_TYPES_PER_CLUSTER = 3;
+
+    private final int[] blockXs;
+    private final int[] blockZs;
+    private final int[] rawIds;
+    private final int entityCount;
+
+    private EntityClusterSnapshot(final int[] blockXs, final int[] blockZs, final int[] rawIds, final int entityCount) {
+        this.blockXs = blockXs;
+        this.blockZs = blockZs;
+        this.rawIds = rawIds;
+        this.entityCount = entityCount;
+    }
+
+    /**
+     * Must only be called from the server thread.
+     */
+    public static EntityClusterSnapshot take(final ServerWorld world) {
+        // The census follows entity load and unload events, which fire when the world starts and stops
+        // tracking an entity, so it can drift from what iterateEntities returns. It only sizes the arrays,
+        // which grow if it's too low.
+        final int capacity = Math.max(((ServerWorldAccessor) world).getEntityCensusTracker().getEntityCount(), MIN_CAPACITY);
+        int[] blockXs = new int[capacity];
+        int[] blockZs = new int[capacity];
+        int[] rawIds = new int[capacity];
+        int entityCount = 0;
+
+        for (Entity entity : world.iterateEntities()) {
+            if (entityCount == blockXs.length) {
+                blockXs = Arrays.copyOf(blockXs, entityCount * 2);
+                blockZs = Arrays.copyOf(blockZs, entityCount * 2);
+                rawIds = Arrays.copyOf(rawIds, entityCount * 2);
+            }
+            blockXs[entityCount] = entity.getBlockX();
+            blockZs[entityCount] = entity.getBlockZ();
+            rawIds[entityCount] = Registries.ENTITY_TYPE.getRawId(entity.getType());
+            entityCount++;
+        }
+
+        return new EntityClusterSnapshot(blockXs, blockZs, rawIds, entityCount);
+    }
+
+    /**
+     * Returns up to n of the densest clusters, densest first.
+     */
+    public List<Cluster> findClusters(final int n) {
+        final Long2IntOpenHashMap chunkCounts = new Long2IntOpenHashMap();
+        for (int i = 0; i < entityCount; i++) {
+            chunkCounts.addTo(ChunkPos.toLong(blockXs[i] >> 4, blockZs[i] >> 4), 1);
+        }
+
+        final long[] chunkPositions = new long[chunkCounts.size()];
+        final int[] areaCounts = new int[chunkPositions.length];
+        final LongIterator iterator = chunkCounts.keySet().iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            chunkPositions[i] = iterator.nextLong();
+            final int chunkX = ChunkPos.getPackedX(chunkPositions[i]);
+            final int chunkZ = ChunkPos.getPackedZ(chunkPositions[i]);
+
+            for (int dx = -CLUSTER_RADIUS_CHUNKS; dx <= CLUSTER_RADIUS_CHUNKS; dx++) {
+                for (int dz = -CLUSTER_RADIUS_CHUNKS; dz <= CLUSTER_RADIUS_CHUNKS; dz++) {
+                    areaCounts[i] += chunkCounts.get(ChunkPos.toLong(chunkX + dx, chunkZ + dz));
+                }
+            }
+        }
+
+        final List<Integer> candidates = IntStream.range(0, chunkPositions.length)
+            .boxed()
+            .sorted(Comparator.comparingInt((Integer i) -> areaCounts[i]).reversed())
+            .collect(Collectors.toList());
+
+        final List<Cluster> clusters = new ArrayList<>();
+        for (int candidate : candidates) {
+            if (clusters.size() == n) {
+                break;
+            }
+
+            final int chunkX = ChunkPos.getPackedX(chunkPositions[candidate]);
+            final int chunkZ = ChunkPos.getPackedZ(chunkPositions[candidate]);
+            boolean overlaps = false;
+            for (Cluster cluster : clusters) {
+                overlaps |= cluster.contains(chunkX, chunkZ, CLUSTER_RADIUS_CHUNKS * 2);
+            }
+            if (!overlaps) {
+                clusters.add(new Cluster(chunkX, chunkZ));
+            }
+        }
+
+        // A second pass over the entities finds the position and types of each cluster's entities.
+        final int[][] typeCounts = new int[clusters.size()][Registries.ENTITY_TYPE.size()];
+        for (int i = 0; i < entityCount; i++) {
+            for (int j = 0; j < clusters.size(); j++) {
+                if (clusters.get(j).contains(blockXs[i] >> 4, blockZs[i] >> 4, CLUSTER_RADIUS_CHUNKS)) {
+                    clusters.get(j).submit(blockXs[i], blockZs[i]);
+                    if (rawIds[i] >= 0 && rawIds[i] < typeCounts[j].length) {
+                        typeCounts[j][rawIds[i]]++;
+                    }
+                    break;
+                }
+            }
+        }
+        for (int j = 0; j < clusters.size(); j++) {
+            clusters.get(j).setTopTypes(typeCounts[j]);
+        }
+
+        return clusters;
+    }
+
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    public static final class Cluster {
+        private final int chunkX;
+        private final int chunkZ;
+        private int entityCount = 0;
+        private long blockXTotal = 0;
+        private long blockZTotal = 0;
+        private int[] topRawIds;
+        private int[] topTypeCounts;
+
+        private Cluster(final int chunkX, final int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private boolean contains(final int otherChunkX, final int otherChunkZ, final int radiusChunks) {
+            return Math.abs(otherChunkX - chunkX) <= radiusChunks && Math.abs(otherChunkZ - chunkZ) <= radiusChunks;
+        }
+
+        private void submit(final int blockX, final int blockZ) {
+            entityCount++;
+            blockXTotal += blockX;
+            blockZTotal += blockZ;
+        }
+
+        private void setTopTypes(final int[] typeCounts) {
+            topRawIds = IntStream.range(0, typeCounts.length)
+                .filter((rawId) -> typeCounts[rawId] > 0)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer rawId) -> typeCounts[rawId]).reversed())
+                .limit(TOP_TYPES_PER_CLUSTER)
+                .mapToInt(Integer::intValue)
+                .toArray();
+            topTypeCounts = Arrays.stream(topRawIds).map((rawId) -> typeCounts[rawId]).toArray();
+        }
+
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        public int getChunkZ() {
+            return chunkZ;
+        }
+
+        public int getEntityCount() {
+            return entityCount;
+        }
+
+        /**
+         * Returns the mean x of the cluster's entities, which points at the farm or pile better
+         * than the chunk does.
+         */
+        public int getBlockX() {
+            return entityCount > 0 ? (int) (blockXTotal / entityCount) : (chunkX << 4) + 8;
+        }
+
+        public int getBlockZ() {
+            return entityCount > 0 ? (int) (blockZTotal / entityCount) : (chunkZ << 4) + 8;
+        }
+
+        /**
+         * Returns the raw ids of the cluster's most common entity types, most common first.
+         */
+        public int[] getTopRawIds() {
+            return topRawIds;
+        }
+
+        public int[] getTopTypeCounts() {
+            return topTypeCounts;
+        }
+    }
+}
\ No newline at end of file
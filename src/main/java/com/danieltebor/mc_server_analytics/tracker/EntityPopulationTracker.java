@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+/**
+ * Samples a world's entity counts per category from its {@link EntityCensusTracker} every
+ * {@value #SAMPLE_INTERVAL_SECONDS}s into a ring covering the last {@value #MAX_MINUTES_TO_TRACK}m.
+ * Each sample also gets an exponentially weighted moving average of the growth per minute, so a
+ * steady leak stands out while counts that only bounce around average out close to zero.
+ * 
+ * All methods must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class EntityPopulationTracker {
+
+    public final static int SAMPLE_INTERVAL_SECONDS = 5;
+    public final static int MAX_MINUTES_TO_TRACK = 60;
+    public final static int GROWTH_HALF_LIFE_SECONDS = 120;
+    public final static int ALERT_WINDOW_MINUTES = 5;
+
+    private final static long SAMPLE_INTERVAL_NS = SAMPLE_INTERVAL_SECONDS * 1000000000L;
+    private final static int SAMPLES_PER_MINUTE = 60 / SAMPLE_INTERVAL_SECONDS;
+    private final static int CAPACITY = MAX_MINUTES_TO_TRACK * SAMPLES_PER_MINUTE + 1;
+    private final static double GROWTH_WEIGHT = 1 - Math.pow(0.5, (double) SAMPLE_INTERVAL_SECONDS / GROWTH_HALF_LIFE_SECONDS);
+    private final static int ALERT_COOLDOWN_SAMPLES = SAMPLES_PER_MINUTE * 10;
+
+    private final int[][] counts = new int[EntityCensusTracker.Category.values().length][CAPACITY];
+    private final float[][] growthsPerMinute = new float[EntityCensusTracker.Category.values().length][CAPACITY];
+    private long lastSampleTimeNS = System.nanoTime();
+    private long sampleCount = 0;
+    private long lastAlertSample = -ALERT_COOLDOWN_SAMPLES;
+
+    public void submitTick(final EntityCensusTracker entityCensusTracker) {
+        final long nowNS = System.nanoTime();
+        if (nowNS - lastSampleTimeNS < SAMPLE_INTERVAL_NS) {
+            return;
+        }
+
+        // Samples are timed by the clock, so growth is measured over the real time between them during lag.
+        final double minutesSinceSample = (nowNS - lastSampleTimeNS) / 60000000000.0;
+        lastSampleTimeNS = nowNS;
+
+        final int slot = (int) (sampleCount % CAPACITY);
+        final int previousSlot = (int) ((sampleCount + CAPACITY - 1) % CAPACITY);
+        for (EntityCensusTracker.Category category : EntityCensusTracker.Category.values()) {
+            final int count = entityCensusTracker.getCount(category);
+            final int[] categoryCounts = counts[category.ordinal()];
+            final float[] categoryGrowths = growthsPerMinute[category.ordinal()];
+
+            if (sampleCount == 0) {
+                categoryGrowths[slot] = 0;
+            } else {
+                final double growth = (count - categoryCounts[previousSlot]) / minutesSinceSample;
+                categoryGrowths[slot] = (float) (categoryGrowths[previousSlot] + GROWTH_WEIGHT * (growth - categoryGrowths[previousSlot]));
+            }
+            categoryCounts[slot] = count;
+        }
+        sampleCount++;
+    }
+
+    /**
+     * Returns the category growing fastest if its growth is at least minGrowthPerMinute, it grew by
+     * at least that much per minute over the last {@value #ALERT_WINDOW_MINUTES}m, and no category
+     * was returned in the last 10m, or null otherwise. Requiring growth over the window keeps a
+     * single burst, like a broken chest of items, from raising an alert.
+     */
+    public EntityCensusTracker.Category pollGrowingCategory(final double minGrowthPerMinute) {
+        if (sampleCount - lastAlertSample < ALERT_COOLDOWN_SAMPLES) {
+            return null;
+        }
+
+        EntityCensusTracker.Category fastestCategory = null;
+        for (EntityCensusTracker.Category category : EntityCensusTracker.Category.values()) {
+            final int windowGrowth = getGrowth(category, ALERT_WINDOW_MINUTES);
+            if (getGrowthPerMinute(category) >= minGrowthPerMinute
+                && windowGrowth != Integer.MIN_VALUE && windowGrowth >= minGrowthPerMinute * ALERT_WINDOW_MINUTES
+                && (fastestCategory == null || getGrowthPerMinute(category) > getGrowthPerMinute(fastestCategory))) {
+                fastestCategory = category;
+            }
+        }
+
+        if (fastestCategory != null) {
+            lastAlertSample = sampleCount;
+        }
+        return fastestCategory;
+    }
+
+    public int getCount(final EntityCensusTracker.Category category) {
+        return sampleCount > 0 ? counts[category.ordinal()][(int) ((sampleCount - 1) % CAPACITY)] : 0;
+    }
+
+    /**
+     * Returns how much the category's count changed over the last number of minutes, up to
+     * {@value #MAX_MINUTES_TO_TRACK}, or Integer.MIN_VALUE if it hasn't been sampled for that long.
+     */
+    public int getGrowth(final EntityCensusTracker.Category category, final int minutes) {
+        final int samplesAgo = Math.min(minutes, MAX_MINUTES_TO_TRACK) * SAMPLES_PER_MINUTE;
+        if (sampleCount <= samplesAgo) {
+            return Integer.MIN_VALUE;
+        }
+
+        final int[] categoryCounts = counts[category.ordinal()];
+        return categoryCounts[(int) ((sampleCount - 1) % CAPACITY)] - categoryCounts[(int) ((sampleCount - 1 - samplesAgo) % CAPACITY)];
+    }
+
+    public float getGrowthPerMinute(final EntityCensusTracker.Category category) {
+        return sampleCount > 0 ? growthsPerMinute[category.ordinal()][(int) ((sampleCount - 1) % CAPACITY)] : 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+/**
+ * Splits the server thread's time between ticks into time spent working and time spent waiting
+ * for the next tick. Each tick closes the period since the previous tick into a ring of running
+ * totals, so utilization and headroom over any recent window are O(1) to read.
+ * 
+ * Utilization is the share of wall time the server thread was not waiting. Headroom is the share
+ * of the tick budget left once the work of a tick and the tasks run after it are done, which
+ * goes negative when a tick's work exceeds the budget.
+ * 
+ * The work per tick while no players are online is kept as a baseline, so the work each player
+ * adds on top of it can be used to estimate how many players fit in the budget.
+ * 
+ * All methods except the getters must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class HeadroomTracker {
+
+    public final static int MAX_SECONDS_TO_TRACK = 60;
+
+    private final static long TICK_BUDGET_NS = 1000000000L / TickInfoTracker.DESIRED_TPS;
+    private final static int TICK_CAPACITY = Integer.highestOneBit(MAX_SECONDS_TO_TRACK * TickInfoTracker.DESIRED_TPS) << 1;
+    private final static int TICK_MASK = TICK_CAPACITY - 1;
+    // The baseline is a mean over the first minute of empty ticks, then an EWMA weighted to about a minute.
+    private final static int BASELINE_PERIODS = MAX_SECONDS_TO_TRACK * TickInfoTracker.DESIRED_TPS;
+
+    // Slot (n & TICK_MASK) holds the summed wall and wait time of the first n tick periods.
+    private final long[] wallTimeTotalsNS = new long[TICK_CAPACITY];
+    private final long[] waitTimeTotalsNS = new long[TICK_CAPACITY];
+
+    private long wallTimeTotalNS = 0;
+    private long waitTimeTotalNS = 0;
+    private long lastTickStartTimeNS = -1;
+    private long waitStartTimeNS = -1;
+    private boolean isBetweenTicks = false;
+
+    private volatile long periodCount = 0;
+    private volatile double baselineBusyNS = 0;
+    private volatile int baselinePeriodCount = 0;
+
+    /**
+     * Closes the period since the previous tick started, with the number of players online.
+     */
+    public void submitTickStart(final int playerCount) {
+        final long nowNS = System.nanoTime();
+
+        if (lastTickStartTimeNS != -1) {
+            final long count = periodCount;
+            if (playerCount == 0) {
+                final long busyNS = nowNS - lastTickStartTimeNS - (waitTimeTotalNS - waitTimeTotalsNS[(int) (count & TICK_MASK)]);
+                final int baselineCount = Math.min(baselinePeriodCount + 1, BASELINE_PERIODS);
+                baselineBusyNS += (busyNS - baselineBusyNS) / baselineCount;
+                baselinePeriodCount = baselineCount;
+            }
+
+            wallTimeTotalNS += nowNS - lastTickStartTimeNS;
+            wallTimeTotalsNS[(int) ((count + 1) & TICK_MASK)] = wallTimeTotalNS;
+            waitTimeTotalsNS[(int) ((count + 1) & TICK_MASK)] = waitTimeTotalNS;
+            periodCount = count + 1;
+        }
+
+        lastTickStartTimeNS = nowNS;
+    }
+
+    public void enterBetweenTicks() {
+        isBetweenTicks = true;
+    }
+
+    public void exitBetweenTicks() {
+        isBetweenTicks = false;
+    }
+
+    /**
+     * Waits outside of the time between ticks, like while the server starts, aren't counted.
+     */
+    public void startWaiting() {
+        if (isBetweenTicks) {
+            waitStartTimeNS = System.nanoTime();
+        }
+    }
+
+    public void stopWaiting() {
+        if (waitStartTimeNS != -1) {
+            waitTimeTotalNS += System.nanoTime() - waitStartTimeNS;
+            waitStartTimeNS = -1;
+        }
+    }
+
+    public float getUtilizationPercent(final int secondsToTrack) {
+        final long count = periodCount;
+        final long periodsInWindow = getPeriodsInWindow(secondsToTrack, count);
+        if (periodsInWindow == 0) {
+            return 0;
+        }
+
+        final long wallTimeNS = getWindowTotal(wallTimeTotalsNS, count, periodsInWindow);
+        final long waitTimeNS = getWindowTotal(waitTimeTotalsNS, count, periodsInWindow);
+        return wallTimeNS > 0 ? (wallTimeNS - waitTimeNS) * 100.0f / wallTimeNS : 0;
+    }
+
+    public float getHeadroomPercent(final int secondsToTrack) {
+        final long count = periodCount;
+        final long periodsInWindow = getPeriodsInWindow(secondsToTrack, count);
+        if (periodsInWindow == 0) {
+            return 100;
+        }
+
+        return 100 - getBusyNSPerTick(count, periodsInWindow) * 100.0f / TICK_BUDGET_NS;
+    }
+
+    /**
+     * Returns the average time in ms the server thread worked per tick, counting the tasks run
+     * between ticks.
+     */
+    public float getBusyMSPT(final int secondsToTrack) {
+        final long count = periodCount;
+        final long periodsInWindow = getPeriodsInWindow(secondsToTrack, count);
+        return periodsInWindow > 0 ? getBusyNSPerTick(count, periodsInWindow) / 1000000.0f : 0;
+    }
+
+    /**
+     * Estimates how many players fit before a tick's work fills the budget, taking each player to
+     * add the same work on top of the baseline. Returns -1 until the server has been empty for a
+     * minute, or if the players online add no measurable work.
+     */
+    public int getEstimatedMaxPlayers(final int secondsToTrack, final int playerCount) {
+        final long count = periodCount;
+        final long periodsInWindow = getPeriodsInWindow(secondsToTrack, count);
+        final double baselineNS = baselineBusyNS;
+        if (playerCount == 0 || periodsInWindow == 0 || baselinePeriodCount < BASELINE_PERIODS) {
+            return -1;
+        }
+
+        final double playerNS = (getBusyNSPerTick(count, periodsInWindow) - baselineNS) / playerCount;
+        return playerNS > 0 ? (int) Math.max((TICK_BUDGET_NS - baselineNS) / playerNS, 0) : -1;
+    }
+
+    private long getBusyNSPerTick(final long count, final long periodsInWindow) {
+        return (getWindowTotal(wallTimeTotalsNS, count, periodsInWindow)
+            - getWindowTotal(waitTimeTotalsNS, count, periodsInWindow)) / periodsInWindow;
+    }
+
+    private static long getPeriodsInWindow(final int secondsToTrack, final long count) {
+        if (secondsToTrack <= 0 || secondsToTrack > MAX_SECONDS_TO_TRACK) {
+            throw new IllegalArgumentException("secondsToTrack must be between 1 and " + MAX_SECONDS_TO_TRACK);
+        }
+        return Math.min((long) secondsToTrack * TickInfoTracker.DESIRED_TPS, count);
+    }
+
+    private static long getWindowTotal(final long[] totals, final long count, final long periodsInWindow) {
+        return totals[(int) (count & TICK_MASK)] - totals[(int) ((count - periodsInWindow) & TICK_MASK)];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,403 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.MCServerAnalytics;
+import com.danieltebor.mc_server_analytics.accessor.MinecraftServerAccessor;
+import com.danieltebor.mc_server_analytics.util.MemInfo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Records server metrics once a second into a ring of fixed-size records in a memory-mapped file,
+ * so history survives restarts. Records are written in place through the mapping by the tracker
+ * thread, and readers read straight from the mapping.
+ * 
+ * The file starts with a header of magic, version, record size, capacity, and the number of
+ * records ever written. Each record is the epoch second it was taken followed by one float per
+ * {@link Metric}, where a negative value means the metric was unavailable.
+ * 
+ * Every metric is also folded into a {@link RollupTracker}, which answers ranges too long to scan
+ * second by second. The rollups of every metric are kept in a second memory-mapped file, after a
+ * header of magic, version, and metric count, and on start the seconds since their last complete
+ * buckets are replayed into them from the history file.
+ * 
+ * @author Daniel Tebor
+ */
+public final class HistoryTracker extends Tracker {
+
+    public static enum Metric {
+
+        TPS("tps", "TPS"),
+        MSPT("mspt", "MSPT"),
+        MSPT_P50("mspt-p50", "MSPT p50"),
+        MSPT_P95("mspt-p95", "MSPT p95"),
+        MSPT_P99("mspt-p99", "MSPT p99"),
+        MSPT_MAX("mspt-max", "MSPT Max"),
+        ENTITIES("entities", "Entities"),
+        CHUNKS("chunks", "Loaded Chunks"),
+        CPU("cpu", "CPU Load %"),
+        HEAP("heap", "Used Heap MB");
+
+        private final String name;
+        private final String label;
+
+        Metric(final String name, final String label) {
+            this.name = name;
+            this.label = label;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        private int getOffset() {
+            return Long.BYTES + ordinal() * Float.BYTES;
+        }
+    }
+
+    private static final int MAGIC = 0x4D435348;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_COUNT_OFFSET = 16;
+    private static final int RECORD_SIZE = Long.BYTES + Metric.values().length * Float.BYTES;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    private static final long MAX_SECONDS_SCANNED = 60 * 60;
+    private static final int ROLLUP_HEADER_SIZE = 16;
+
+    private final Path historyPath;
+    private final Path rollupPath;
+    private final int capacity;
+    private final RollupTracker[] rollupTrackers = new RollupTracker[Metric.values().length];
+
+    private volatile MappedByteBuffer historyBuffer;
+    private MappedByteBuffer rollupBuffer;
+    private volatile long recordCount;
+    // Kept for commands to report, since the server isn't up to log to when the file is opened.
+    private volatile IOException openException;
+
+    private volatile int entityCount = -1;
+    private volatile int loadedChunkCount = -1;
+
+    public HistoryTracker(final long retentionHours, final Path historyPath) {
+        this.historyPath = historyPath;
+        this.rollupPath = historyPath.resolveSibling("history-rollups.bin");
+        this.capacity = (int) Math.max(Math.min(retentionHours * 60 * 60, MAX_CAPACITY), 60);
+    }
+
+    /**
+     * Counts can only be taken on the server thread, which submits them once a second.
+     */
+    public void submitWorldCounts(final int entityCount, final int loadedChunkCount) {
+        this.entityCount = entityCount;
+        this.loadedChunkCount = loadedChunkCount;
+    }
+
+    @Override
+    protected void trackImpl() throws InterruptedException {
+        try {
+            openHistoryFile();
+        } catch (IOException e) {
+            openException = e;
+            return;
+        }
+
+        while (shouldTrack()) {
+            synchronized (lock) {
+                lock.wait(1000 - System.currentTimeMillis() % 1000);
+            }
+
+            final MinecraftServer server = MCServerAnalytics.getInstance().getServer();
+            if (shouldTrack() && server != null) {
+                writeRecord(System.currentTimeMillis() / 1000, ((MinecraftServerAccessor) server).getTickInfoTracker());
+            }
+        }
+
+        historyBuffer.force();
+        rollupBuffer.force();
+    }
+
+    private void openHistoryFile() throws IOException {
+        Files.createDirectories(historyPath.getParent());
+
+        openRollupFile();
+
+        final MappedByteBuffer historyBuffer = map(historyPath, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+
+        // A new file, or one written with a different layout or retention, starts over.
+        if (historyBuffer.getInt(0) != MAGIC || historyBuffer.getInt(4) != VERSION
+            || historyBuffer.getInt(8) != RECORD_SIZE || historyBuffer.getInt(12) != capacity) {
+            historyBuffer.putInt(0, MAGIC);
+            historyBuffer.putInt(4, VERSION);
+            historyBuffer.putInt(8, RECORD_SIZE);
+            historyBuffer.putInt(12, capacity);
+            historyBuffer.putLong(RECORD_COUNT_OFFSET, 0);
+        }
+        recordCount = historyBuffer.getLong(RECORD_COUNT_OFFSET);
+
+        // Seconds already in complete rollup buckets are ignored by them.
+        for (long record = Math.max(recordCount - capacity, 0); record < recordCount; record++) {
+            final int offset = getRecordOffset(record);
+            for (Metric metric : Metric.values()) {
+                submitRollup(historyBuffer.getLong(offset), metric, historyBuffer.getFloat(offset + metric.getOffset()));
+            }
+        }
+        this.historyBuffer = historyBuffer;
+    }
+
+    private void openRollupFile() throws IOException {
+        rollupBuffer = map(rollupPath, ROLLUP_HEADER_SIZE + (long) Metric.values().length * RollupTracker.BYTES);
+
+        // A new file, or one written with a different layout, starts over. Zeroed tiers hold no buckets.
+        if (rollupBuffer.getInt(0) != MAGIC || rollupBuffer.getInt(4) != VERSION
+            || rollupBuffer.getInt(8) != Metric.values().length) {
+            for (int i = 0; i < rollupBuffer.capacity(); i++) {
+                rollupBuffer.put(i, (byte) 0);
+            }
+            rollupBuffer.putInt(0, MAGIC);
+            rollupBuffer.putInt(4, VERSION);
+            rollupBuffer.putInt(8, Metric.values().length);
+        }
+
+        for (int i = 0; i < rollupTrackers.length; i++) {
+            rollupTrackers[i] = new RollupTracker(rollupBuffer.slice(ROLLUP_HEADER_SIZE + i * RollupTracker.BYTES, RollupTracker.BYTES));
+        }
+    }
+
+    private static MappedByteBuffer map(final Path path, final long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() != size) {
+                channel.truncate(0);
+            }
+            // The mapping stays valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private void writeRecord(final long epochSecond, final TickInfoTracker tickInfoTracker) {
+        final MappedByteBuffer historyBuffer = this.historyBuffer;
+        final long count = recordCount;
+        final int offset = getRecordOffset(count);
+        final double cpuLoad = MCServerAnalytics.getInstance().getCpuInfoTracker().getOverallLoad();
+
+        historyBuffer.putLong(offset, epochSecond);
+        putMetric(offset, epochSecond, Metric.TPS, tickInfoTracker.getTPS(1));
+        putMetric(offset, epochSecond, Metric.MSPT, tickInfoTracker.getMSPT(1));
+        putMetric(offset, epochSecond, Metric.MSPT_P50, tickInfoTracker.getMSPTPercentile(1, 50));
+        putMetric(offset, epochSecond, Metric.MSPT_P95, tickInfoTracker.getMSPTPercentile(1, 95));
+        putMetric(offset, epochSecond, Metric.MSPT_P99, tickInfoTracker.getMSPTPercentile(1, 99));
+        putMetric(offset, epochSecond, Metric.MSPT_MAX, tickInfoTracker.getMSPTPercentile(1, 100));
+        putMetric(offset, epochSecond, Metric.ENTITIES, entityCount);
+        putMetric(offset, epochSecond, Metric.CHUNKS, loadedChunkCount);
+        putMetric(offset, epochSecond, Metric.CPU, cpuLoad >= 0 ? (float) (cpuLoad * 100) : -1);
+        putMetric(offset, epochSecond, Metric.HEAP, MemInfo.toMB(MemInfo.getUsedHeapMemory()));
+
+        // Published only once the record is complete.
+        historyBuffer.putLong(RECORD_COUNT_OFFSET, count + 1);
+        recordCount = count + 1;
+    }
+
+    private void putMetric(final int offset, final long epochSecond, final Metric metric, final float value) {
+        historyBuffer.putFloat(offset + metric.getOffset(), value);
+        submitRollup(epochSecond, metric, value);
+    }
+
+    private void submitRollup(final long epochSecond, final Metric metric, final float value) {
+        if (value >= 0) {
+            rollupTrackers[metric.ordinal()].submit(epochSecond, value);
+        }
+    }
+
+    private int getRecordOffset(final long record) {
+        return HEADER_SIZE + (int) (record % capacity) * RECORD_SIZE;
+    }
+
+    /**
+     * Summarizes the metric over the last rangeSeconds, splitting the range into bucketCount
+     * equal buckets, oldest first. Ranges up to an hour are read second by second from the file,
+     * and longer ones from the finest rollup tier retaining them. Returns null if the history
+     * file isn't available.
+     */
+    public Summary summarize(final Metric metric, final long rangeSeconds, final int bucketCount) {
+        final MappedByteBuffer historyBuffer = this.historyBuffer;
+        final long count = recordCount;
+        if (historyBuffer == null) {
+            return null;
+        }
+
+        final long nowSecond = System.currentTimeMillis() / 1000;
+        if (rangeSeconds > Math.min(MAX_SECONDS_SCANNED, capacity)) {
+            final RollupTracker.Tier tier = RollupTracker.getTier(rangeSeconds);
+            final Summary summary = new Summary(rangeSeconds, bucketCount, tier.getBucketSeconds());
+            rollupTrackers[metric.ordinal()].summarize(tier, nowSecond, rangeSeconds, summary);
+            return summary;
+        }
+
+        final Summary summary = new Summary(rangeSeconds, bucketCount, 1);
+
+        for (long record = count - 1; record >= Math.max(count - capacity, 0); record--) {
+            final int offset = getRecordOffset(record);
+            final long age = nowSecond - historyBuffer.getLong(offset);
+            if (age >= rangeSeconds) {
+                break;
+            }
+
+            final float value = historyBuffer.getFloat(offset + metric.getOffset());
+            if (age < 0 || value < 0) {
+                continue;
+            }
+            summary.add((int) ((rangeSeconds - 1 - age) * bucketCount / rangeSeconds), value, value, value, value, 1);
+        }
+
+        return summary;
+    }
+
+    /**
+     * Returns the exception that kept the history file from being opened, or null if it opened
+     * or is still opening.
+     */
+    public IOException getOpenException() {
+        return openException;
+    }
+
+    /**
+     * Returns how far back the metric's history reaches, from the oldest record in the history
+     * file or the oldest rollup bucket, whichever is older, or 0 if history isn't available.
+     */
+    public long getCoveredSeconds(final Metric metric) {
+        final MappedByteBuffer historyBuffer = this.historyBuffer;
+        final long count = recordCount;
+        if (historyBuffer == null) {
+            return 0;
+        }
+
+        final long nowSecond = System.currentTimeMillis() / 1000;
+        long oldestSecond = rollupTrackers[metric.ordinal()].getOldestSecond();
+        if (count > 0) {
+            oldestSecond = Math.min(oldestSecond, historyBuffer.getLong(getRecordOffset(Math.max(count - capacity, 0))));
+        }
+        return Math.max(nowSecond - Math.min(oldestSecond, nowSecond), 0);
+    }
+
+    public static final class Summary {
+        private final double[] bucketSums;
+        private final int[] bucketSampleCounts;
+        private final long rangeSeconds;
+        private final int resolutionSeconds;
+
+        private float min = Float.MAX_VALUE;
+        private float max = -Float.MAX_VALUE;
+        private double sum = 0;
+        private int sampleCount = 0;
+        private float[] p99s = new float[64];
+        private int p99Count = 0;
+
+        private Summary(final long rangeSeconds, final int bucketCount, final int resolutionSeconds) {
+            bucketSums = new double[bucketCount];
+            bucketSampleCounts = new int[bucketCount];
+            this.rangeSeconds = rangeSeconds;
+            this.resolutionSeconds = resolutionSeconds;
+        }
+
+        void add(final int bucket, final float min, final float mean, final float max, final float p99, final int sampleCount) {
+            bucketSums[bucket] += (double) mean * sampleCount;
+            bucketSampleCounts[bucket] += sampleCount;
+
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+            sum += (double) mean * sampleCount;
+            this.sampleCount += sampleCount;
+
+            if (p99Count == p99s.length) {
+                p99s = Arrays.copyOf(p99s, p99Count * 2);
+            }
+            p99s[p99Count++] = p99;
+        }
+
+        public long getRangeSeconds() {
+            return rangeSeconds;
+        }
+
+        /**
+         * Returns the number of seconds each recorded value covers, 1 unless the summary was
+         * answered from a rollup tier.
+         */
+        public int getResolutionSeconds() {
+            return resolutionSeconds;
+        }
+
+        public int getSampleCount() {
+            return sampleCount;
+        }
+
+        public float getMin() {
+            return sampleCount > 0 ? min : 0;
+        }
+
+        public float getMean() {
+            return sampleCount > 0 ? (float) (sum / sampleCount) : 0;
+        }
+
+        public float getMax() {
+            return sampleCount > 0 ? max : 0;
+        }
+
+        /**
+         * Returns the 99th percentile of the recorded values. When answered from a rollup tier
+         * it is taken over the p99 of each rollup bucket, so it approximates the true p99.
+         */
+        public float getP99() {
+            if (p99Count == 0) {
+                return 0;
+            }
+
+            final float[] sortedP99s = Arrays.copyOf(p99s, p99Count);
+            Arrays.sort(sortedP99s);
+            return sortedP99s[(int) Math.ceil(p99Count * 0.99) - 1];
+        }
+
+        public int getBucketCount() {
+            return bucketSums.length;
+        }
+
+        /**
+         * Returns the mean of the bucket, or NaN if nothing was recorded in it.
+         */
+        public float getBucketMean(final int bucket) {
+            return bucketSampleCounts[bucket] > 0 ? (float) (bucketSums[bucket] / bucketSampleCounts[bucket]) : Float.NaN;
+        }
+    }
+}
\ No newline at end of file
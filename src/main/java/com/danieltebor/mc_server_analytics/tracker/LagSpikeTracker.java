@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.util.LoggerUtil;
+import com.danieltebor.mc_server_analytics.util.StackTrie;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Samples the server thread's stack for the remainder of any tick that runs past the threshold
+ * and saves the samples as a collapsed-stack report that flame graph tools can read.
+ * 
+ * @author Daniel Tebor
+ */
+public final class LagSpikeTracker extends Tracker {
+
+    private static final String REPORT_EXTENSION = ".txt";
+
+    private final long thresholdNS;
+    private final long sampleIntervalMS;
+    private final int maxReports;
+    private final Path reportDir;
+
+    private volatile Thread serverThread;
+    private volatile long tickStartTimeNS;
+    private volatile long lastSpikeTickStartTimeNS;
+    private volatile long lastSpikeDurationNS;
+
+    private final StackTrie stackTrie = new StackTrie();
+
+    private final List<LagSpike> lagSpikes = new ArrayList<>();
+
+    public LagSpikeTracker(final long thresholdMS, final long sampleIntervalMS, final int maxReports, final Path reportDir) {
+        this.thresholdNS = thresholdMS * 1_000_000;
+        this.sampleIntervalMS = Math.max(sampleIntervalMS, 1);
+        this.maxReports = maxReports;
+        this.reportDir = reportDir;
+    }
+
+    public void onTickStart() {
+        if (serverThread == null) {
+            serverThread = Thread.currentThread();
+        }
+        tickStartTimeNS = System.nanoTime();
+    }
+
+    public void onTickEnd(final long tickDurationNS) {
+        if (tickDurationNS >= thresholdNS) {
+            lastSpikeDurationNS = tickDurationNS;
+            lastSpikeTickStartTimeNS = tickStartTimeNS;
+        }
+        tickStartTimeNS = 0;
+    }
+
+    @Override
+    protected void trackImpl() throws InterruptedException {
+        long spikeTickStartTimeNS = 0;
+
+        while (shouldTrack()) {
+            final long tickStartTimeNS = this.tickStartTimeNS;
+            if (spikeTickStartTimeNS != 0 && tickStartTimeNS != spikeTickStartTimeNS) {
+                finishLagSpike(spikeTickStartTimeNS);
+                spikeTickStartTimeNS = 0;
+            }
+
+            // Sleeping for up to the threshold while idle can't miss a spike, since a spike lasts at least that long.
+            long waitTimeMS = Math.max(thresholdNS / 1_000_000, 1);
+            if (tickStartTimeNS != 0) {
+                final long tickTimeNS = System.nanoTime() - tickStartTimeNS;
+
+                if (tickTimeNS >= thresholdNS) {
+                    spikeTickStartTimeNS = tickStartTimeNS;
+                    sample();
+                    waitTimeMS = sampleIntervalMS;
+                } else {
+                    waitTimeMS = Math.max((thresholdNS - tickTimeNS) / 1_000_000, 1);
+                }
+            }
+
+            synchronized (lock) {
+                lock.wait(waitTimeMS);
+            }
+        }
+    }
+
+    private void sample() {
+        stackTrie.addSample(serverThread.getStackTrace());
+    }
+
+    private void finishLagSpike(final long spikeTickStartTimeNS) {
+        final long durationNS = lastSpikeTickStartTimeNS == spikeTickStartTimeNS
+            ? lastSpikeDurationNS
+            : System.nanoTime() - spikeTickStartTimeNS;
+        final long timeMS = System.currentTimeMillis() - (System.nanoTime() - spikeTickStartTimeNS) / 1_000_000;
+
+        String reportName = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss-SSS").format(new Date(timeMS))
+            + "_" + durationNS / 1_000_000 + "ms" + REPORT_EXTENSION;
+        try {
+            writeReport(reportDir.resolve(reportName));
+        } catch (IOException e) {
+            LoggerUtil.sendError("Unable to write lag spike report " + reportName, e);
+            reportName = null;
+        }
+
+        synchronized (this) {
+            lagSpikes.add(new LagSpike(timeMS, durationNS, (int) stackTrie.getSampleCount(), stackTrie.getHottestFrame(), reportName));
+            if (lagSpikes.size() > maxReports) {
+                lagSpikes.remove(0);
+            }
+        }
+
+        stackTrie.clear();
+    }
+
+    private void writeReport(final Path reportPath) throws IOException {
+        Files.createDirectories(reportDir);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(reportPath)) {
+            stackTrie.writeCollapsed(writer);
+        }
+
+        // Report names start with their timestamp, so the oldest sort first.
+        final List<Path> reports;
+        try (Stream<Path> reportStream = Files.list(reportDir)) {
+            reports = reportStream
+                .filter((path) -> path.getFileName().toString().endsWith(REPORT_EXTENSION))
+                .sorted()
+                .toList();
+        }
+        for (int i = 0; i < reports.size() - maxReports; i++) {
+            Files.deleteIfExists(reports.get(i));
+        }
+    }
+
+    public synchronized List<LagSpike> getLagSpikes() {
+        final List<LagSpike> lagSpikesCopy = new ArrayList<>(lagSpikes);
+        Collections.reverse(lagSpikesCopy);
+        return lagSpikesCopy;
+    }
+
+    public long getThresholdMS() {
+        return thresholdNS / 1_000_000;
+    }
+
+    public Path getReportDir() {
+        return reportDir;
+    }
+
+    public static final class LagSpike {
+        private final long timeMS;
+        private final long durationNS;
+        private final int sampleCount;
+        private final String hottestFrame;
+        private final String reportName;
+
+        private LagSpike(final long timeMS, final long durationNS, final int sampleCount,
+                         final String hottestFrame, final String reportName) {
+            this.timeMS = timeMS;
+            this.durationNS = durationNS;
+            this.sampleCount = sampleCount;
+            this.hottestFrame = hottestFrame;
+            this.reportName = reportName;
+        }
+
+        public long getTimeMS() {
+            return timeMS;
+        }
+
+        public float getDurationMS() {
+            return durationNS / 1_000_000f;
+        }
+
+        public int getSampleCount() {
+            return sampleCount;
+        }
+
+        public String getHottestFrame() {
+            return hottestFrame;
+        }
+
+        /**
+         * Returns null if the report could not be written.
+         */
+        public String getReportName() {
+            return reportName;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.util.LoggerUtil;
+import com.danieltebor.mc_server_analytics.util.StackTrie;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Samples the server thread's stack at a fixed interval while profiling and writes the folded
+ * samples as a collapsed-stack profile that flame graph tools can read. The interval is stretched
+ * whenever sampling would otherwise take more than MAX_OVERHEAD of the server thread's time.
+ * 
+ * @author Daniel Tebor
+ */
+public final class ProfilerTracker extends Tracker {
+
+    private static final double MAX_OVERHEAD = 0.01;
+    private static final String PROFILE_EXTENSION = ".txt";
+
+    private final long sampleIntervalMS;
+    private final Path profileDir;
+    private final StackTrie stackTrie = new StackTrie();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private volatile Thread targetThread;
+    private volatile boolean shouldReset;
+    private volatile Path pendingProfilePath;
+    private volatile Path failedProfilePath;
+
+    private volatile long startTimeNS;
+    private volatile long stopTimeNS;
+    private volatile long sampleCount;
+    private volatile long samplingTimeNS;
+    private volatile long effectiveSampleIntervalMS;
+
+    public ProfilerTracker(final long sampleIntervalMS, final Path profileDir) {
+        this.sampleIntervalMS = Math.max(sampleIntervalMS, 1);
+        this.effectiveSampleIntervalMS = this.sampleIntervalMS;
+        this.profileDir = profileDir;
+    }
+
+    @Override
+    protected void trackImpl() throws InterruptedException {
+        while (shouldTrack()) {
+            // Written before any reset so that stopping and restarting keeps the stopped profile.
+            final Path profilePath = pendingProfilePath;
+            if (profilePath != null) {
+                pendingProfilePath = null;
+                try {
+                    writeProfile(profilePath);
+                    failedProfilePath = null;
+                } catch (IOException e) {
+                    LoggerUtil.sendError("Unable to write profile " + profilePath.getFileName(), e);
+                    failedProfilePath = profilePath;
+                }
+            }
+
+            if (shouldReset) {
+                shouldReset = false;
+                stackTrie.clear();
+                sampleCount = 0;
+                samplingTimeNS = 0;
+                effectiveSampleIntervalMS = sampleIntervalMS;
+            }
+
+            final Thread targetThread = this.targetThread;
+            if (targetThread != null) {
+                final long sampleStartTimeNS = getSamplingTimeNS();
+                stackTrie.addSample(targetThread.getStackTrace());
+                final long sampleTimeNS = getSamplingTimeNS() - sampleStartTimeNS;
+
+                sampleCount = stackTrie.getSampleCount();
+                samplingTimeNS += sampleTimeNS;
+
+                // The target thread is paused for at most the time taken to sample it, so a slow sample
+                // is followed by a long enough wait to keep the overhead under MAX_OVERHEAD.
+                effectiveSampleIntervalMS = Math.max(sampleIntervalMS,
+                    (long) Math.ceil(sampleTimeNS * (1 / MAX_OVERHEAD - 1) / 1_000_000));
+            }
+
+            synchronized (lock) {
+                if (this.targetThread != null) {
+                    lock.wait(effectiveSampleIntervalMS);
+                } else if (shouldTrack() && !shouldReset && pendingProfilePath == null) {
+                    lock.wait();
+                }
+            }
+        }
+    }
+
+    /**
+     * CPU time is preferred since waiting for the target thread to reach a point where its stack
+     * can be walked doesn't pause it, and on busy machines wall time mostly measures that wait.
+     */
+    private long getSamplingTimeNS() {
+        return threadMXBean.isCurrentThreadCpuTimeSupported()
+            ? threadMXBean.getCurrentThreadCpuTime()
+            : System.nanoTime();
+    }
+
+    private void writeProfile(final Path profilePath) throws IOException {
+        Files.createDirectories(profileDir);
+        try (BufferedWriter writer = Files.newBufferedWriter(profilePath)) {
+            stackTrie.writeCollapsed(writer);
+        }
+    }
+
+    /**
+     * Clears any previous profile and starts sampling the given thread.
+     * Returns false if a profile is already being recorded.
+     */
+    public boolean startProfiling(final Thread targetThread) {
+        synchronized (lock) {
+            if (this.targetThread != null) {
+                return false;
+            }
+
+            shouldReset = true;
+            startTimeNS = System.nanoTime();
+            stopTimeNS = 0;
+            this.targetThread = targetThread;
+            lock.notify();
+        }
+        return true;
+    }
+
+    /**
+     * Stops sampling and saves the profile. Returns the path the profile is written to,
+     * or null if no profile is being recorded.
+     */
+    public Path stopProfiling() {
+        synchronized (lock) {
+            if (targetThread == null) {
+                return null;
+            }
+
+            targetThread = null;
+            stopTimeNS = System.nanoTime();
+        }
+        return requestProfile();
+    }
+
+    /**
+     * Saves the profile recorded so far without stopping. The profile is written by the
+     * tracker thread shortly after. Returns the path it is written to, or null if nothing
+     * has been profiled yet.
+     */
+    public Path requestProfile() {
+        synchronized (lock) {
+            if (startTimeNS == 0) {
+                return null;
+            }
+
+            final Path profilePath = profileDir.resolve("profile_"
+                + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + PROFILE_EXTENSION);
+            pendingProfilePath = profilePath;
+            lock.notify();
+            return profilePath;
+        }
+    }
+
+    /**
+     * Returns the path of the last profile if writing it failed, or null otherwise.
+     */
+    public Path getFailedProfilePath() {
+        return failedProfilePath;
+    }
+
+    public boolean isProfiling() {
+        return targetThread != null;
+    }
+
+    public float getProfiledSeconds() {
+        if (startTimeNS == 0) {
+            return 0;
+        }
+        return ((stopTimeNS != 0 ? stopTimeNS : System.nanoTime()) - startTimeNS) / 1e9f;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public long getEffectiveSampleIntervalMS() {
+        return effectiveSampleIntervalMS;
+    }
+
+    /**
+     * Returns the share of the profiled time spent sampling as a percent, which bounds the
+     * time the server thread spent paused by the profiler.
+     */
+    public float getOverheadPercent() {
+        final float profiledSeconds = getProfiledSeconds();
+        return profiledSeconds > 0 ? (float) (samplingTimeNS / 1e9 / profiledSeconds * 100) : 0;
+    }
+}
\ No newline at end of file
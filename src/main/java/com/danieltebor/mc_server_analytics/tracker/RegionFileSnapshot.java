@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The chunk count and allocated sectors of each of a world's region files, read from the location
+ * table that starts every region file. Only the table is read, never chunk data, and files are read
+ * in parallel, so taking a snapshot of every region file is cheap enough to do whenever asked.
+ * 
+ * @author Daniel Tebor
+ */
+public final class RegionFileSnapshot {
+
+    public static final String REGION_FILE_SUFFIX = ".mca";
+    public static final int SECTOR_BYTES = 4096;
+
+    private static final int CHUNKS_PER_REGION = 32 * 32;
+    // The location table is followed by a table of chunk timestamps, both a sector long.
+    private static final int HEADER_SECTORS = 2;
+
+    private final List<RegionFile> regionFiles;
+
+    private RegionFileSnapshot(final List<RegionFile> regionFiles) {
+        this.regionFiles = regionFiles;
+    }
+
+    /**
+     * Reads the location table of each region file, given by path relative to the world and size in
+     * bytes. Should not be called from the server thread.
+     */
+    public static RegionFileSnapshot take(final Path worldPath, final Map<Path, Long> regionFileSizes) {
+        return new RegionFileSnapshot(regionFileSizes.entrySet().parallelStream()
+            .map((entry) -> read(worldPath, entry.getKey(), entry.getValue()))
+            // Files deleted since their size was recorded are left out.
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
+    }
+
+    private static RegionFile read(final Path worldPath, final Path path, final long fileSizeBytes) {
+        final ByteBuffer locations = ByteBuffer.allocate(CHUNKS_PER_REGION * Integer.BYTES);
+
+        try (FileChannel channel = FileChannel.open(worldPath.resolve(path), StandardOpenOption.READ)) {
+            while (locations.hasRemaining() && channel.read(locations) != -1);
+        } catch (IOException e) {
+            return null;
+        }
+
+        int chunkCount = 0;
+        long allocatedSectors = 0;
+        // A file without a full location table has never had a chunk written to it.
+        if (!locations.hasRemaining()) {
+            locations.flip();
+            for (int i = 0; i < CHUNKS_PER_REGION; i++) {
+                // The top 3 bytes are the chunk's first sector and the last byte is its sector count.
+                final int location = locations.getInt();
+                if (location != 0) {
+                    chunkCount++;
+                    allocatedSectors += location & 0xFF;
+                }
+            }
+        }
+
+        return new RegionFile(path, fileSizeBytes, chunkCount, allocatedSectors);
+    }
+
+    public List<RegionFile> getLargest(final int count) {
+        return regionFiles.stream()
+            .sorted(Comparator.comparingLong(RegionFile::getFileSizeBytes).reversed())
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
+    public int getRegionFileCount() {
+        return regionFiles.size();
+    }
+
+    public long getChunkCount() {
+        long chunkCount = 0;
+        for (RegionFile regionFile : regionFiles) {
+            chunkCount += regionFile.chunkCount;
+        }
+        return chunkCount;
+    }
+
+    public long getUnusedBytes() {
+        long unusedBytes = 0;
+        for (RegionFile regionFile : regionFiles) {
+            unusedBytes += regionFile.getUnusedBytes();
+        }
+        return unusedBytes;
+    }
+
+    public static final class RegionFile {
+        private final Path path;
+        private final long fileSizeBytes;
+        private final int chunkCount;
+        private final long allocatedSectors;
+
+        private RegionFile(final Path path, final long fileSizeBytes, final int chunkCount, final long allocatedSectors) {
+            this.path = path;
+            this.fileSizeBytes = fileSizeBytes;
+            this.chunkCount = chunkCount;
+            this.allocatedSectors = allocatedSectors;
+        }
+
+        /**
+         * Returns the file's path relative to the world.
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        public long getFileSizeBytes() {
+            return fileSizeBytes;
+        }
+
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedSectors * SECTOR_BYTES;
+        }
+
+        /**
+         * Returns the bytes of sectors no chunk is allocated, left behind when chunks shrink or move.
+         */
+        public long getUnusedBytes() {
+            return Math.max(fileSizeBytes - (HEADER_SECTORS * SECTOR_BYTES + getAllocatedBytes()), 0);
+        }
+    }
+}
\ No newline at end of file
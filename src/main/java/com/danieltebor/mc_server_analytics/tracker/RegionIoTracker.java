@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.util.LogLinearHistogram;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts chunk reads and writes, the bytes they moved, and how long they took per region
+ * directory, which covers each storage (chunks, entities, and POIs) of each dimension.
+ * 
+ * Disk time covers only reading or writing a chunk's sectors in its region file, while total time
+ * also covers compression and NBT (de)serialization, so the two together separate disk time from
+ * CPU time. Stats cover the time since the server started.
+ * 
+ * A directory's stats are written by its storage's IO worker and can be read from any thread. The
+ * histogram getters return copies, so they can be read while the worker keeps recording.
+ * 
+ * @author Daniel Tebor
+ */
+public final class RegionIoTracker {
+
+    public static enum Operation {
+
+        READ("Reads"),
+        WRITE("Writes");
+
+        private final String name;
+
+        Operation(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final Map<Path, RegionIoStats> statsByDirectory = new ConcurrentHashMap<>();
+
+    public RegionIoStats getStats(final Path directory) {
+        return statsByDirectory.computeIfAbsent(directory.toAbsolutePath().normalize(), (key) -> new RegionIoStats());
+    }
+
+    public Map<Path, RegionIoStats> getStatsByDirectory() {
+        return Collections.unmodifiableMap(statsByDirectory);
+    }
+
+    public static final class RegionIoStats {
+        private final Object lock = new Object();
+        private final OperationStats[] operationStats = new OperationStats[Operation.values().length];
+
+        private RegionIoStats() {
+            for (int i = 0; i < operationStats.length; i++) {
+                operationStats[i] = new OperationStats();
+            }
+        }
+
+        public void submitDiskTime(final Operation operation, final long timeNS, final long bytes) {
+            final OperationStats stats = operationStats[operation.ordinal()];
+            synchronized (lock) {
+                stats.diskTimesNS.record(timeNS);
+                stats.bytes += bytes;
+                stats.count++;
+            }
+        }
+
+        public void submitTotalTime(final Operation operation, final long timeNS) {
+            synchronized (lock) {
+                operationStats[operation.ordinal()].totalTimesNS.record(timeNS);
+            }
+        }
+
+        public long getCount(final Operation operation) {
+            return operationStats[operation.ordinal()].count;
+        }
+
+        public long getBytes(final Operation operation) {
+            return operationStats[operation.ordinal()].bytes;
+        }
+
+        public LogLinearHistogram getDiskTimeHistogram(final Operation operation) {
+            return copy(operationStats[operation.ordinal()].diskTimesNS);
+        }
+
+        public LogLinearHistogram getTotalTimeHistogram(final Operation operation) {
+            return copy(operationStats[operation.ordinal()].totalTimesNS);
+        }
+
+        private LogLinearHistogram copy(final LogLinearHistogram histogram) {
+            final LogLinearHistogram copy = new LogLinearHistogram();
+            synchronized (lock) {
+                copy.add(histogram);
+            }
+            return copy;
+        }
+    }
+
+    private static final class OperationStats {
+        private final LogLinearHistogram diskTimesNS = new LogLinearHistogram();
+        private final LogLinearHistogram totalTimesNS = new LogLinearHistogram();
+        // Written under the stats' lock, and volatile so they can be read without it.
+        private volatile long bytes = 0;
+        private volatile long count = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Folds a per-second series into 1 minute and 1 hour buckets of min, mean, max, and p99, each
+ * tier kept as a fixed-size ring in a region of {@link #BYTES} bytes, so weeks of a series take a
+ * few hundred KB. Buckets are computed from the seconds within them, and a bucket is only visible
+ * once it is complete.
+ * 
+ * The region is given by the caller, so {@link HistoryTracker} maps it to a file and completed
+ * buckets survive restarts. Buckets already in the region are kept, and seconds within them are
+ * ignored, so the seconds since the last complete bucket can be submitted again on start.
+ * 
+ * Seconds must be submitted by a single thread in increasing order.
+ * 
+ * @author Daniel Tebor
+ */
+public final class RollupTracker {
+
+    public static enum Tier {
+
+        MINUTE(60, 60 * 24 * 7),
+        HOUR(60 * 60, 24 * 7 * 8);
+
+        private final int bucketSeconds;
+        private final int capacity;
+
+        Tier(final int bucketSeconds, final int capacity) {
+            this.bucketSeconds = bucketSeconds;
+            this.capacity = capacity;
+        }
+
+        public int getBucketSeconds() {
+            return bucketSeconds;
+        }
+
+        public long getRetentionSeconds() {
+            return (long) bucketSeconds * capacity;
+        }
+
+        private int getBytes() {
+            return Long.BYTES + capacity * BUCKET_SIZE;
+        }
+    }
+
+    // Each tier is its bucket count followed by a ring of buckets. A bucket is its start second,
+    // min, mean, max, and p99, and its sample count.
+    private static final int BUCKET_SIZE = Long.BYTES + 4 * Float.BYTES + Integer.BYTES;
+    private static final int MIN_OFFSET = Long.BYTES;
+    private static final int MEAN_OFFSET = MIN_OFFSET + Float.BYTES;
+    private static final int MAX_OFFSET = MEAN_OFFSET + Float.BYTES;
+    private static final int P99_OFFSET = MAX_OFFSET + Float.BYTES;
+    private static final int SAMPLE_COUNT_OFFSET = P99_OFFSET + Float.BYTES;
+
+    public static final int BYTES = Arrays.stream(Tier.values()).mapToInt(Tier::getBytes).sum();
+
+    private final TierBuckets[] tierBuckets = new TierBuckets[Tier.values().length];
+
+    /**
+     * Keeps the tiers in the buffer from its position on. A buffer of zeros holds no buckets.
+     */
+    public RollupTracker(final ByteBuffer buffer) {
+        int offset = buffer.position();
+        for (Tier tier : Tier.values()) {
+            tierBuckets[tier.ordinal()] = new TierBuckets(tier, buffer, offset);
+            offset += tier.getBytes();
+        }
+    }
+
+    public void submit(final long epochSecond, final float value) {
+        for (TierBuckets buckets : tierBuckets) {
+            buckets.submit(epochSecond, value);
+        }
+    }
+
+    /**
+     * Returns the finest tier that retains the given range.
+     */
+    public static Tier getTier(final long rangeSeconds) {
+        return rangeSeconds <= Tier.MINUTE.getRetentionSeconds() ? Tier.MINUTE : Tier.HOUR;
+    }
+
+    /**
+     * Returns the start second of the oldest bucket kept in any tier, or Long.MAX_VALUE if no
+     * bucket is complete yet.
+     */
+    public long getOldestSecond() {
+        long oldestSecond = Long.MAX_VALUE;
+        for (TierBuckets buckets : tierBuckets) {
+            final long count = buckets.bucketCount;
+            if (count > 0) {
+                oldestSecond = Math.min(oldestSecond, buckets.getStartSecond(Math.max(count - buckets.tier.capacity, 0)));
+            }
+        }
+        return oldestSecond;
+    }
+
+    /**
+     * Adds the buckets of the tier that started within the last rangeSeconds to the summary,
+     * splitting the range into the summary's buckets, oldest first.
+     */
+    public void summarize(final Tier tier, final long nowSecond, final long rangeSeconds, final HistoryTracker.Summary summary) {
+        final TierBuckets buckets = tierBuckets[tier.ordinal()];
+        final ByteBuffer buffer = buckets.buffer;
+        final long count = buckets.bucketCount;
+
+        for (long bucket = count - 1; bucket >= Math.max(count - tier.capacity, 0); bucket--) {
+            final int offset = buckets.getBucketOffset(bucket);
+            final long age = nowSecond - buffer.getLong(offset);
+            if (age >= rangeSeconds) {
+                break;
+            }
+            if (age < 0) {
+                continue;
+            }
+
+            summary.add((int) ((rangeSeconds - 1 - age) * summary.getBucketCount() / rangeSeconds),
+                buffer.getFloat(offset + MIN_OFFSET), buffer.getFloat(offset + MEAN_OFFSET), buffer.getFloat(offset + MAX_OFFSET),
+                buffer.getFloat(offset + P99_OFFSET), buffer.getInt(offset + SAMPLE_COUNT_OFFSET));
+        }
+    }
+
+    private static final class TierBuckets {
+        private final Tier tier;
+        private final ByteBuffer buffer;
+        private final int offset;
+        private volatile long bucketCount;
+
+        // Seconds of the bucket in progress, sorted when it completes for its p99.
+        private final float[] pendingValues;
+        private int pendingCount = 0;
+        private long pendingStartSecond = Long.MIN_VALUE;
+        // Seconds before this were already folded into a complete bucket.
+        private long nextStartSecond = Long.MIN_VALUE;
+
+        private TierBuckets(final Tier tier, final ByteBuffer buffer, final int offset) {
+            this.tier = tier;
+            this.buffer = buffer;
+            this.offset = offset;
+            pendingValues = new float[tier.bucketSeconds];
+
+            bucketCount = buffer.getLong(offset);
+            if (bucketCount > 0) {
+                nextStartSecond = getStartSecond(bucketCount - 1) + tier.bucketSeconds;
+            }
+        }
+
+        private void submit(final long epochSecond, final float value) {
+            final long startSecond = epochSecond - Math.floorMod(epochSecond, tier.bucketSeconds);
+            if (startSecond < nextStartSecond) {
+                return;
+            }
+            if (startSecond != pendingStartSecond) {
+                complete();
+                pendingStartSecond = startSecond;
+            }
+
+            if (pendingCount < pendingValues.length) {
+                pendingValues[pendingCount++] = value;
+            }
+        }
+
+        private void complete() {
+            if (pendingCount == 0) {
+                return;
+            }
+
+            Arrays.sort(pendingValues, 0, pendingCount);
+            double sum = 0;
+            for (int i = 0; i < pendingCount; i++) {
+                sum += pendingValues[i];
+            }
+
+            final long count = bucketCount;
+            final int bucketOffset = getBucketOffset(count);
+            buffer.putLong(bucketOffset, pendingStartSecond);
+            buffer.putFloat(bucketOffset + MIN_OFFSET, pendingValues[0]);
+            buffer.putFloat(bucketOffset + MEAN_OFFSET, (float) (sum / pendingCount));
+            buffer.putFloat(bucketOffset + MAX_OFFSET, pendingValues[pendingCount - 1]);
+            buffer.putFloat(bucketOffset + P99_OFFSET, pendingValues[(int) Math.ceil(pendingCount * 0.99) - 1]);
+            buffer.putInt(bucketOffset + SAMPLE_COUNT_OFFSET, pendingCount);
+
+            // Published only once the bucket is complete.
+            buffer.putLong(offset, count + 1);
+            bucketCount = count + 1;
+            nextStartSecond = pendingStartSecond + tier.bucketSeconds;
+
+            pendingCount = 0;
+        }
+
+        private long getStartSecond(final long bucket) {
+            return buffer.getLong(getBucketOffset(bucket));
+        }
+
+        private int getBucketOffset(final long bucket) {
+            return offset + Long.BYTES + (int) (bucket % tier.capacity) * BUCKET_SIZE;
+        }
+    }
+}
\ No newline at end of file
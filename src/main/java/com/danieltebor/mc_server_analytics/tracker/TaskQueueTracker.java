@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+import com.danieltebor.mc_server_analytics.util.LogLinearHistogram;
+import com.danieltebor.mc_server_analytics.util.SliceRing;
+import com.danieltebor.mc_server_analytics.util.SlidingWindowHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks how long tasks wait in the server's task queue and how deep the queue gets, per task
+ * origin. A task's origin is the thread pool that enqueued it, like the network threads for
+ * packets or the worker threads for chunk work, which each thread resolves once.
+ * 
+ * Time in queue is recorded into a {@link SlidingWindowHistogram} per origin, and queue depth into
+ * the same {@value #SLICE_SECONDS}s slices, covering the last minute.
+ * 
+ * Only {@link #getCurrentThreadOriginId} may be called off the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class TaskQueueTracker {
+
+    public final static int MAX_SECONDS_TO_TRACK = 60;
+
+    private final static int SLICE_SECONDS = 10;
+    private final static int MAX_ORIGINS = 32;
+    private final static String OVERFLOW_ORIGIN_NAME = "Other";
+    private final static Pattern THREAD_NUMBER_PATTERN = Pattern.compile("[\\s#_-]*\\d+$");
+
+    private final Map<String, Integer> originIdsByName = new ConcurrentHashMap<>();
+    private final String[] originNames = new String[MAX_ORIGINS];
+    private final ThreadLocal<Integer> threadOriginIds = ThreadLocal.withInitial(
+        () -> registerOrigin(Thread.currentThread().getName()));
+    private volatile int originCount = 0;
+
+    private final SlidingWindowHistogram[] queueTimeHistograms = new SlidingWindowHistogram[MAX_ORIGINS];
+    private final SliceRing depthSliceRing = new SliceRing(MAX_SECONDS_TO_TRACK, SLICE_SECONDS, this::clearDepthSlice);
+    private final int[] maxDepths = new int[depthSliceRing.getSliceCount()];
+
+    /**
+     * May be called from any thread.
+     */
+    public int getCurrentThreadOriginId() {
+        return threadOriginIds.get();
+    }
+
+    private synchronized int registerOrigin(final String threadName) {
+        final String originName = THREAD_NUMBER_PATTERN.matcher(threadName).replaceAll("");
+        final Integer existingOriginId = originIdsByName.get(originName);
+        if (existingOriginId != null) {
+            return existingOriginId;
+        }
+
+        final int originId;
+        if (originCount < MAX_ORIGINS - 1) {
+            originId = originCount;
+            originNames[originId] = originName;
+            originCount = originId + 1;
+        } else {
+            originId = MAX_ORIGINS - 1;
+            originNames[originId] = OVERFLOW_ORIGIN_NAME;
+            originCount = MAX_ORIGINS;
+        }
+
+        originIdsByName.put(originName, originId);
+        return originId;
+    }
+
+    /**
+     * Records a task leaving the queue with the given number of tasks still queued behind it.
+     */
+    public void submitTaskStart(final int originId, final long enqueueTimeNS, final int queuedTaskCount) {
+        final int slot = depthSliceRing.advance();
+
+        maxDepths[slot] = Math.max(maxDepths[slot], queuedTaskCount + 1);
+        if (originId < 0 || enqueueTimeNS == -1) {
+            return;
+        }
+
+        if (queueTimeHistograms[originId] == null) {
+            queueTimeHistograms[originId] = new SlidingWindowHistogram(MAX_SECONDS_TO_TRACK, SLICE_SECONDS);
+        }
+        queueTimeHistograms[originId].record(System.nanoTime() - enqueueTimeNS);
+    }
+
+    private void clearDepthSlice(final int slot) {
+        maxDepths[slot] = 0;
+    }
+
+    public int getOriginCount() {
+        return originCount;
+    }
+
+    public String getOriginName(final int originId) {
+        return originNames[originId];
+    }
+
+    /**
+     * Returns the origin's time in queue in ns over the last minute, merged into a new histogram.
+     */
+    public LogLinearHistogram getQueueTimeHistogram(final int originId) {
+        return queueTimeHistograms[originId] != null
+            ? queueTimeHistograms[originId].getHistogram()
+            : new LogLinearHistogram();
+    }
+
+    /**
+     * Returns the most tasks queued at once over the last minute, as seen when tasks are run.
+     */
+    public int getMaxDepth() {
+        depthSliceRing.advance();
+
+        int maxDepth = 0;
+        for (int depth : maxDepths) {
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        return maxDepth;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+/**
+ * Accumulates the time spent and number of invocations per key, where keys are small ints such
+ * as registry raw ids. Running totals are snapshotted once a second into a ring, so the cost of
+ * every key over any recent window is a subtraction away and recording a cost never allocates.
+ * 
+ * All methods must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class TickCostTracker {
+
+    public final static int MAX_SECONDS_TO_TRACK = 60;
+
+    private final static long NS_PER_SECOND = 1000000000L;
+    private final static int SECOND_CAPACITY = Integer.highestOneBit(MAX_SECONDS_TO_TRACK) << 1;
+    private final static int SECOND_MASK = SECOND_CAPACITY - 1;
+
+    private final long startTimeNS = System.nanoTime();
+    private final int keyCount;
+
+    private final long[] timeTotalsNS;
+    private final long[] invocationTotals;
+    // Slot ((s & SECOND_MASK) * keyCount + key) holds the key's totals from before second s began.
+    private final long[] timeTotalsAtSecondNS;
+    private final long[] invocationTotalsAtSecond;
+    private final long[] tickTotalsAtSecond = new long[SECOND_CAPACITY];
+
+    private long tickCount = 0;
+    private long currentSecond = 0;
+
+    public TickCostTracker(final int keyCount) {
+        this.keyCount = keyCount;
+        timeTotalsNS = new long[keyCount];
+        invocationTotals = new long[keyCount];
+        timeTotalsAtSecondNS = new long[SECOND_CAPACITY * keyCount];
+        invocationTotalsAtSecond = new long[SECOND_CAPACITY * keyCount];
+    }
+
+    public void submit(final int key, final long timeNS) {
+        if (key < 0 || key >= keyCount) {
+            return;
+        }
+
+        timeTotalsNS[key] += timeNS;
+        invocationTotals[key]++;
+    }
+
+    public void submitTick() {
+        tickCount++;
+
+        final long second = (System.nanoTime() - startTimeNS) / NS_PER_SECOND;
+        if (second <= currentSecond) {
+            return;
+        }
+
+        // Seconds skipped during a stall are closed with the same totals, meaning nothing ran in them.
+        for (long s = Math.max(currentSecond + 1, second - SECOND_MASK); s <= second; s++) {
+            final int slot = (int) (s & SECOND_MASK);
+            System.arraycopy(timeTotalsNS, 0, timeTotalsAtSecondNS, slot * keyCount, keyCount);
+            System.arraycopy(invocationTotals, 0, invocationTotalsAtSecond, slot * keyCount, keyCount);
+            tickTotalsAtSecond[slot] = tickCount;
+        }
+        currentSecond = second;
+    }
+
+    private int getWindowStartSlot(final int secondsToTrack) {
+        if (secondsToTrack <= 0 || secondsToTrack > MAX_SECONDS_TO_TRACK) {
+            throw new IllegalArgumentException("secondsToTrack must be between 1 and " + MAX_SECONDS_TO_TRACK);
+        }
+        return (int) (Math.max(currentSecond - secondsToTrack, 0) & SECOND_MASK);
+    }
+
+    public long getTimeNS(final int key, final int secondsToTrack) {
+        return timeTotalsNS[key] - timeTotalsAtSecondNS[getWindowStartSlot(secondsToTrack) * keyCount + key];
+    }
+
+    public long getInvocationCount(final int key, final int secondsToTrack) {
+        return invocationTotals[key] - invocationTotalsAtSecond[getWindowStartSlot(secondsToTrack) * keyCount + key];
+    }
+
+    public long getTickCount(final int secondsToTrack) {
+        return tickCount - tickTotalsAtSecond[getWindowStartSlot(secondsToTrack)];
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+}
\ No newline at end of file
@@ -22,88 +22,140 @@
 
 package com.danieltebor.mc_server_analytics.tracker;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Queue;
+import com.danieltebor.mc_server_analytics.util.LogLinearHistogram;
 
 /**
+ * Tracks tick durations for every rolling window in a single ring of primitive tick times.
+ * The server thread is the only writer, and readers derive any window in O(1) from running
+ * totals, so submitting a tick never locks or allocates. Each window in {@link #WINDOWS_SECONDS}
+ * also keeps a fixed-memory histogram of its tick times for percentiles.
+ * 
  * @author Daniel Tebor
  */
-public final class TickInfoTracker extends Tracker {
+public final class TickInfoTracker {
 
     public final static int DESIRED_TPS = 20;
+    public final static int MAX_SECONDS_TO_TRACK = 60 * 15;
+    // The 1s window backs the per-second records of the history file.
+    public final static int[] WINDOWS_SECONDS = {1, 5, 15, 60, 60 * 5, MAX_SECONDS_TO_TRACK};
+
+    private final static long NS_PER_SECOND = 1000000000L;
+
+    // Capacities are powers of two with slack past the longest window, so a reader of the longest
+    // window never sees its oldest slot overwritten by the writer.
+    private final static int TICK_CAPACITY = Integer.highestOneBit(MAX_SECONDS_TO_TRACK * DESIRED_TPS) << 1;
+    private final static int TICK_MASK = TICK_CAPACITY - 1;
+    private final static int SECOND_CAPACITY = Integer.highestOneBit(MAX_SECONDS_TO_TRACK) << 1;
+    private final static int SECOND_MASK = SECOND_CAPACITY - 1;
+
+    private final long startTimeNS = System.nanoTime();
+
+    // Slot (n & TICK_MASK) holds the duration of tick n.
+    private final long[] tickTimesNS = new long[TICK_CAPACITY];
+    // Slot (n & TICK_MASK) holds the summed duration of the first n ticks.
+    private final long[] tickTimeTotalsNS = new long[TICK_CAPACITY];
+    // Slot (s & SECOND_MASK) holds the number of ticks completed before second s began.
+    private final long[] tickTotalsAtSecond = new long[SECOND_CAPACITY];
+    private final LogLinearHistogram[] windowHistograms = new LogLinearHistogram[WINDOWS_SECONDS.length];
+
+    private long tickTimeTotalNS = 0;
+    private volatile long tickCount = 0;
+    private volatile long currentSecond = 0;
+
+    public TickInfoTracker() {
+        for (int i = 0; i < WINDOWS_SECONDS.length; i++) {
+            windowHistograms[i] = new LogLinearHistogram();
+        }
+    }
 
-    private final int secondsToTrack, ticksToTrack;
-    private Queue<Integer> rollingTPS;
-    private Queue<Float> rollingMSPT;
-    private List<Long> ticksNS = new ArrayList<>(DESIRED_TPS + 1);
+    /**
+     * Must only be called from the server thread.
+     */
+    public void submitTickTimeNS(final long tickTimeNS) {
+        final long count = tickCount;
+        final long second = (System.nanoTime() - startTimeNS) / NS_PER_SECOND;
+        final long lastSecond = currentSecond;
+
+        if (second > lastSecond) {
+            // Seconds skipped during a stall are closed with the same total, meaning no ticks occurred in them.
+            for (long s = Math.max(lastSecond + 1, second - SECOND_MASK); s <= second; s++) {
+                tickTotalsAtSecond[(int) (s & SECOND_MASK)] = count;
+            }
+            currentSecond = second;
+        }
 
-    public TickInfoTracker(final int secondsToTrack) {
-        if (secondsToTrack <= 0) {
-            throw new RuntimeException("secondsToTrack must be greater than 0");
+        for (int i = 0; i < WINDOWS_SECONDS.length; i++) {
+            final long windowTicks = (long) WINDOWS_SECONDS[i] * DESIRED_TPS;
+            if (count >= windowTicks) {
+                windowHistograms[i].remove(tickTimesNS[(int) ((count - windowTicks) & TICK_MASK)]);
+            }
+            windowHistograms[i].record(tickTimeNS);
         }
 
-        this.secondsToTrack = secondsToTrack;
-        ticksToTrack = secondsToTrack * DESIRED_TPS;
-        
-        rollingTPS = new ArrayDeque<>(secondsToTrack);
-        rollingTPS.add(DESIRED_TPS);
+        tickTimeTotalNS += tickTimeNS;
+        tickTimesNS[(int) (count & TICK_MASK)] = tickTimeNS;
+        tickTimeTotalsNS[(int) ((count + 1) & TICK_MASK)] = tickTimeTotalNS;
+        tickCount = count + 1;
+    }
+
+    public float getTPS(final int secondsToTrack) {
+        checkSecondsToTrack(secondsToTrack);
 
-        rollingMSPT = new ArrayDeque<>(ticksToTrack);
-        rollingMSPT.add(0f);
+        final long lastSecond = currentSecond;
+        final long count = tickCount;
+        final long second = (System.nanoTime() - startTimeNS) / NS_PER_SECOND;
+
+        if (second == 0) {
+            return DESIRED_TPS;
+        }
 
-        start();
+        final long windowStart = Math.max(second - secondsToTrack, 0);
+        final long ticksInWindow = getTickTotalAtSecond(second, lastSecond, count)
+            - getTickTotalAtSecond(windowStart, lastSecond, count);
+
+        return (float) ticksInWindow / (second - windowStart);
     }
 
-    @Override
-    protected void trackImpl() throws InterruptedException {
-        long timeToWait = 1000;
-        long adjustedTimeToWait;
-        long startTime;
-        long timeTaken;
-        
-        while (shouldTrack()) {
-            startTime = System.currentTimeMillis();
-
-            synchronized (this) {
-                if (rollingTPS.size() == secondsToTrack) {
-                    rollingTPS.remove();
-                }
-                rollingTPS.add(ticksNS.size());
-
-                for (float tick : ticksNS) {
-                    if (rollingMSPT.size() == ticksToTrack) {
-                        rollingMSPT.remove();
-                    }
-                    rollingMSPT.add(tick / 1000000.0f);
-                }
-                ticksNS.clear();
-            }
+    public float getMSPT(final int secondsToTrack) {
+        checkSecondsToTrack(secondsToTrack);
 
-            timeTaken = System.currentTimeMillis() - startTime;
-            adjustedTimeToWait = timeToWait - timeTaken;
-            if (adjustedTimeToWait < 0) {
-                adjustedTimeToWait = 0;
-            }
+        final long count = tickCount;
+        final long ticksInWindow = Math.min((long) secondsToTrack * DESIRED_TPS, count);
 
-            synchronized (lock) {
-                lock.wait(adjustedTimeToWait);
-            }
+        if (ticksInWindow == 0) {
+            return 0;
         }
+
+        final long windowTickTimeNS = tickTimeTotalsNS[(int) (count & TICK_MASK)]
+            - tickTimeTotalsNS[(int) ((count - ticksInWindow) & TICK_MASK)];
+        return windowTickTimeNS / 1000000.0f / ticksInWindow;
     }
 
-    public synchronized void submitTickTimeNS(final long tickTimeNS) {
-        if (getState() != Thread.State.NEW) {
-            ticksNS.add(tickTimeNS);
+    /**
+     * Returns the tick time in ms at the given percentile (0 - 100) for one of the windows in
+     * {@link #WINDOWS_SECONDS}. The 100th percentile is the max tick time.
+     */
+    public float getMSPTPercentile(final int secondsToTrack, final double percentile) {
+        for (int i = 0; i < WINDOWS_SECONDS.length; i++) {
+            if (WINDOWS_SECONDS[i] == secondsToTrack) {
+                return windowHistograms[i].getValueAtPercentile(percentile) / 1000000.0f;
+            }
         }
+        throw new IllegalArgumentException("secondsToTrack must be one of the tracked windows");
+    }
+
+    public long getTickCount() {
+        return tickCount;
     }
 
-    public synchronized float getTPS() {
-        return (float) rollingTPS.stream().reduce(0, Integer::sum) / rollingTPS.size();
+    private long getTickTotalAtSecond(final long second, final long lastSecond, final long count) {
+        // Every tick after the last closed second happened within it, so later seconds share the live count.
+        return second <= lastSecond ? tickTotalsAtSecond[(int) (second & SECOND_MASK)] : count;
     }
 
-    public synchronized float getMSPT() {
-        return rollingMSPT.stream().reduce(0f, Float::sum) / rollingMSPT.size();
+    private static void checkSecondsToTrack(final int secondsToTrack) {
+        if (secondsToTrack <= 0 || secondsToTrack > MAX_SECONDS_TO_TRACK) {
+            throw new IllegalArgumentException("secondsToTrack must be between 1 and " + MAX_SECONDS_TO_TRACK);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.tracker;
+
+/**
+ * Accumulates how long each phase of a server tick takes. Mixins call {@link #enter} and
+ * {@link #exit} around each phase, and the tick hook folds the per-phase times into a ring
+ * of running totals, so averages over any recent window are O(1) to read.
+ * 
+ * enter, exit, and submitTick must only be called from the server thread.
+ * 
+ * @author Daniel Tebor
+ */
+public final class TickPhaseTracker {
+
+    public static enum Phase {
+
+        TICK(null, "Tick"),
+        WORLDS(TICK, "Worlds"),
+        WORLD(WORLDS, "World Ticks"),
+        CHUNK_MANAGER(WORLD, "Chunk Manager"),
+        ENTITIES(WORLD, "Entities"),
+        BLOCK_ENTITIES(WORLD, "Block Entities"),
+        NETWORK(WORLDS, "Network"),
+        TASKS(null, "Scheduled Tasks");
+
+        private final Phase parent;
+        private final String name;
+
+        Phase(final Phase parent, final String name) {
+            this.parent = parent;
+            this.name = name;
+        }
+
+        public Phase getParent() {
+            return parent;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public final static int MAX_SECONDS_TO_TRACK = 60;
+
+    private final static Phase[] PHASES = Phase.values();
+    private final static int PHASE_COUNT = PHASES.length;
+    private final static int TICK_CAPACITY = Integer.highestOneBit(MAX_SECONDS_TO_TRACK * TickInfoTracker.DESIRED_TPS) << 1;
+    private final static int TICK_MASK = TICK_CAPACITY - 1;
+
+    private final long[] phaseStartTimesNS = new long[PHASE_COUNT];
+    private final int[] phaseDepths = new int[PHASE_COUNT];
+    private final long[] currentPhaseTimesNS = new long[PHASE_COUNT];
+    private final long[] phaseTimeTotalsNS = new long[PHASE_COUNT];
+    // Slot ((n & TICK_MASK) * PHASE_COUNT + phase) holds the summed phase time of the first n ticks.
+    private final long[] phaseTimeTotalsAtTick = new long[TICK_CAPACITY * PHASE_COUNT];
+
+    private volatile long tickCount = 0;
+
+    public void enter(final Phase phase) {
+        // Only the outermost entry is timed, so a phase that re-enters itself is not counted twice.
+        if (phaseDepths[phase.ordinal()]++ == 0) {
+            phaseStartTimesNS[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public void exit(final Phase phase) {
+        if (phaseDepths[phase.ordinal()] > 0 && --phaseDepths[phase.ordinal()] == 0) {
+            currentPhaseTimesNS[phase.ordinal()] += System.nanoTime() - phaseStartTimesNS[phase.ordinal()];
+        }
+    }
+
+    /**
+     * Closes the current tick. Phases run between ticks, like scheduled tasks, count towards
+     * the tick that follows them.
+     */
+    public void submitTick(final long tickTimeNS) {
+        final long count = tickCount;
+        final int slot = (int) ((count + 1) & TICK_MASK) * PHASE_COUNT;
+
+        currentPhaseTimesNS[Phase.TICK.ordinal()] = tickTimeNS;
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            phaseTimeTotalsNS[i] += currentPhaseTimesNS[i];
+            phaseTimeTotalsAtTick[slot + i] = phaseTimeTotalsNS[i];
+            currentPhaseTimesNS[i] = 0;
+        }
+
+        tickCount = count + 1;
+    }
+
+    /**
+     * Returns the average time in ms per tick spent in the phase over the window.
+     */
+    public float getAvgPhaseMSPT(final Phase phase, final int secondsToTrack) {
+        if (secondsToTrack <= 0 || secondsToTrack > MAX_SECONDS_TO_TRACK) {
+            throw new IllegalArgumentException("secondsToTrack must be between 1 and " + MAX_SECONDS_TO_TRACK);
+        }
+
+        final long count = tickCount;
+        final long ticksInWindow = Math.min((long) secondsToTrack * TickInfoTracker.DESIRED_TPS, count);
+
+        if (ticksInWindow == 0) {
+            return 0;
+        }
+
+        final long windowPhaseTimeNS = phaseTimeTotalsAtTick[(int) (count & TICK_MASK) * PHASE_COUNT + phase.ordinal()]
+            - phaseTimeTotalsAtTick[(int) ((count - ticksInWindow) & TICK_MASK) * PHASE_COUNT + phase.ordinal()];
+        return windowPhaseTimeNS / 1000000.0f / ticksInWindow;
+    }
+}
\ No newline at end of file
@@ -20,29 +20,63 @@
  * SOFTWARE.
  */
 
+
 package com.danieltebor.mc_server_analytics.tracker;
 
 import com.danieltebor.mc_server_analytics.util.LoggerUtil;
 
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
+ * Tracks the size of each directory in the world. An initial scan walks the world's top level
+ * directories in parallel, after which a {@link WatchService} reports which files changed so only
+ * those are read again. A full rescan still runs periodically, and early if the watch service drops
+ * events, to correct any drift. Without a watch service, the world is rescanned every minute.
+ * 
  * @author Daniel Tebor
  */
 public final class WorldFileInfoTracker extends Tracker {
 
     private final static int MAX_RETRIES = 3;
     private final static long RETRY_DELAY = 1000;
-    
+    // Events are polled with a timeout so closing the tracker is noticed within it.
+    private final static long POLL_TIMEOUT_MS = 1000;
+    private final static long FALLBACK_RESCAN_INTERVAL_MS = 1000 * 60;
+
     private final Path worldPath;
-    private long cachedWorldSize = -1;
+    private final long rescanIntervalMS;
+    // Keyed by absolute directory path. Null until the first scan completes.
+    private volatile Map<Path, DirectoryInfo> directories = null;
+    private WatchService watchService = null;
 
-    public WorldFileInfoTracker() {
+    public WorldFileInfoTracker(final long rescanIntervalMinutes) {
         final String serverPath = System.getProperty("user.dir");
         final Path serverPropertiesPath = Paths.get(serverPath, "server.properties");
 
@@ -57,64 +91,188 @@ public final class WorldFileInfoTracker extends Tracker {
         }
 
         if (levelName != null) {
-            worldPath = Paths.get(serverPath.toString(), levelName);
+            worldPath = Paths.get(serverPath.toString(), levelName).toAbsolutePath().normalize();
         } else {
             worldPath = null;
         }
+        rescanIntervalMS = rescanIntervalMinutes * 60 * 1000;
     }
 
     @Override
     protected void trackImpl() throws InterruptedException {
-        long timeToWait = 1000 * 60;
-        long adjustedTimeToWait;
-        long startTime;
-        long timeTaken;
-        
-        long worldSize;
-        int retries = 0;
-
         if (worldPath == null) {
-            close();
             return;
         }
 
+        try {
+            watchService = worldPath.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            LoggerUtil.sendError("Unable to watch world directory. Rescanning it every minute instead", e);
+        }
+
+        long nextRescanTime = 0;
+        int retries = 0;
+
         while (shouldTrack()) {
             try {
-                startTime = System.currentTimeMillis();
-
-                worldSize = Files.find(worldPath, Integer.MAX_VALUE, (path, attrs) -> attrs.isRegularFile())
-                    .parallel()
-                    .mapToLong(p -> p.toFile().length())
-                    .sum();
-                synchronized (this) {
-                    cachedWorldSize = worldSize;
+                if (System.currentTimeMillis() >= nextRescanTime) {
+                    directories = scan();
+                    retries = 0;
+                    nextRescanTime = System.currentTimeMillis() + (watchService != null ? rescanIntervalMS : FALLBACK_RESCAN_INTERVAL_MS);
                 }
 
-                timeTaken = System.currentTimeMillis() - startTime;
-                adjustedTimeToWait = timeToWait - timeTaken;
-                if (adjustedTimeToWait < 0) {
-                    adjustedTimeToWait = 0;
-                    timeToWait *= 2;
+                if (watchService == null) {
+                    synchronized (lock) {
+                        lock.wait(Math.max(nextRescanTime - System.currentTimeMillis(), 1));
+                    }
+                    continue;
                 }
 
+                final WatchKey key = watchService.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (key != null && !processEvents(key)) {
+                    // Events were dropped, so only a rescan can make the sizes exact again.
+                    nextRescanTime = 0;
+                }
+            } catch (IOException | UncheckedIOException e) {
+                if (++retries > MAX_RETRIES) {
+                    LoggerUtil.sendError("Unable to access world directory", e);
+                    break;
+                }
                 synchronized (lock) {
-                    lock.wait(adjustedTimeToWait);
+                    lock.wait(RETRY_DELAY);
                 }
+            }
+        }
+
+        if (watchService != null) {
+            try {
+                watchService.close();
             } catch (IOException e) {
-                if (++retries > MAX_RETRIES){
-                    LoggerUtil.sendError("Unable to access world directory", e);
-                    close();
-                } else {
-                    synchronized(lock) {
-                        lock.wait(RETRY_DELAY);
-                    }
+                // The tracker is stopping either way.
+            }
+        }
+    }
+
+    private Map<Path, DirectoryInfo> scan() throws IOException {
+        final Map<Path, DirectoryInfo> scannedDirectories = new ConcurrentHashMap<>();
+        final DirectoryInfo worldDirectoryInfo = new DirectoryInfo();
+        final List<Path> subdirectories = new ArrayList<>();
+
+        scannedDirectories.put(worldPath, worldDirectoryInfo);
+        register(worldPath);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldPath)) {
+            for (Path path : stream) {
+                final BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                if (attrs.isDirectory()) {
+                    subdirectories.add(path);
+                } else if (attrs.isRegularFile()) {
+                    worldDirectoryInfo.put(path.getFileName().toString(), attrs.size());
+                }
+            }
+        }
+
+        // Dimensions and storages are separate subtrees, so each is walked by one thread.
+        subdirectories.parallelStream().forEach((subdirectory) -> {
+            try {
+                walk(subdirectory, scannedDirectories);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return scannedDirectories;
+    }
+
+    private void walk(final Path start, final Map<Path, DirectoryInfo> directories) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path directory, final BasicFileAttributes attrs) throws IOException {
+                directories.put(directory, new DirectoryInfo());
+                register(directory);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                final DirectoryInfo directoryInfo = directories.get(file.getParent());
+                if (attrs.isRegularFile() && directoryInfo != null) {
+                    directoryInfo.put(file.getFileName().toString(), attrs.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+                // Files like session.lock and temporary saves can disappear mid walk.
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(final Path directory) throws IOException {
+        if (watchService != null) {
+            // Registering a directory again returns its existing key.
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+    }
+
+    /**
+     * Reads the size of each entry the key's events are about once, no matter how many events it
+     * had, and returns false if events were dropped.
+     */
+    private boolean processEvents(final WatchKey key) throws IOException {
+        final Map<Path, DirectoryInfo> directories = this.directories;
+        final Path directory = (Path) key.watchable();
+        final Set<Path> changedPaths = new LinkedHashSet<>();
+        boolean isComplete = true;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                isComplete = false;
+            } else {
+                changedPaths.add(directory.resolve((Path) event.context()));
+            }
+        }
+
+        for (Path path : changedPaths) {
+            final DirectoryInfo directoryInfo = directories.get(directory);
+            final BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                if (directoryInfo != null) {
+                    directoryInfo.remove(path.getFileName().toString());
                 }
+                directories.keySet().removeIf((trackedDirectory) -> trackedDirectory.startsWith(path));
+                continue;
+            }
+
+            if (attrs.isDirectory() && !directories.containsKey(path)) {
+                walk(path, directories);
+            } else if (attrs.isRegularFile() && directoryInfo != null) {
+                directoryInfo.put(path.getFileName().toString(), attrs.size());
             }
         }
+
+        if (!key.reset()) {
+            // The directory was deleted or can no longer be watched.
+            directories.keySet().removeIf((trackedDirectory) -> trackedDirectory.startsWith(directory));
+        }
+        return isComplete;
     }
 
-    public synchronized long getWorldSizeBytes() {
-        return cachedWorldSize;
+    public long getWorldSizeBytes() {
+        final Map<Path, DirectoryInfo> directories = this.directories;
+        if (directories == null) {
+            return -1;
+        }
+
+        long worldSize = 0;
+        for (DirectoryInfo directoryInfo : directories.values()) {
+            worldSize += directoryInfo.getSizeBytes();
+        }
+        return worldSize;
     }
 
     public float getWorldSizeMB() {
@@ -124,4 +282,64 @@ public final class WorldFileInfoTracker extends Tracker {
     public float getWorldSizeGB() {
         return (float) getWorldSizeBytes() / (1024 * 1024 * 1024);
     }
+
+    /**
+     * Returns the size in bytes of the files directly in each directory, keyed by the directory's
+     * path relative to the world, or an empty map until the first scan completes.
+     */
+    public Map<Path, Long> getDirectorySizes() {
+        final Map<Path, DirectoryInfo> directories = this.directories;
+        final Map<Path, Long> directorySizes = new HashMap<>();
+        if (directories != null) {
+            directories.forEach((directory, directoryInfo) ->
+                directorySizes.put(worldPath.relativize(directory), directoryInfo.getSizeBytes()));
+        }
+        return directorySizes;
+    }
+
+    /**
+     * Returns the size in bytes of each file whose name ends with the suffix, keyed by the file's path
+     * relative to the world.
+     */
+    public Map<Path, Long> getFileSizes(final String suffix) {
+        final Map<Path, DirectoryInfo> directories = this.directories;
+        final Map<Path, Long> fileSizes = new HashMap<>();
+        if (directories != null) {
+            directories.forEach((directory, directoryInfo) -> {
+                final Path relativeDirectory = worldPath.relativize(directory);
+                directoryInfo.forEachFile((fileName, fileSize) -> {
+                    if (fileName.endsWith(suffix)) {
+                        fileSizes.put(relativeDirectory.resolve(fileName), fileSize);
+                    }
+                });
+            });
+        }
+        return fileSizes;
+    }
+
+    public Path getWorldPath() {
+        return worldPath;
+    }
+
+    private static final class DirectoryInfo {
+        // File names rather than paths keep the many region files cheap to hold.
+        private final Object2LongOpenHashMap<String> fileSizes = new Object2LongOpenHashMap<>();
+        private long sizeBytes = 0;
+
+        private synchronized void put(final String fileName, final long fileSize) {
+            sizeBytes += fileSize - fileSizes.put(fileName, fileSize);
+        }
+
+        private synchronized void remove(final String fileName) {
+            sizeBytes -= fileSizes.removeLong(fileName);
+        }
+
+        private synchronized long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        private synchronized void forEachFile(final BiConsumer<String, Long> consumer) {
+            fileSizes.forEach(consumer);
+        }
+    }
 }
\ No newline at end of file
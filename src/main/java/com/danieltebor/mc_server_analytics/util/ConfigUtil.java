@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -44,6 +45,7 @@ public final class ConfigUtil {
     
     private static final String CONFIG_DIR = "config";
     private static final String CONFIG_FILENAME = "mc-server-analytics.properties";
+    private static final String DATA_DIR = "mc-server-analytics";
     private static final Map<String, String> DEFAULT_CONFIG = new LinkedHashMap<>();
 
     private static Properties configCache = null;
@@ -51,18 +53,48 @@ public final class ConfigUtil {
     static {
         DEFAULT_CONFIG.put("coloredCommandOutputs", "true");
 
+        DEFAULT_CONFIG.put("lagSpikeThresholdMS", "100");
+        DEFAULT_CONFIG.put("lagSpikeSampleIntervalMS", "5");
+        DEFAULT_CONFIG.put("lagSpikeMaxReports", "20");
+        DEFAULT_CONFIG.put("profilerSampleIntervalMS", "4");
+        DEFAULT_CONFIG.put("historyRetentionHours", "24");
+        DEFAULT_CONFIG.put("worldSizeRescanMinutes", "60");
+        DEFAULT_CONFIG.put("chunkChurnAlertLoadsPerMinute", "10");
+        DEFAULT_CONFIG.put("entityGrowthAlertPerMinute", "200");
+
+        DEFAULT_CONFIG.put(BlockEntityCostCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(BlockEntityCostCommand.NAME + REQUIRES_OP, "true");
+
+        DEFAULT_CONFIG.put(ChunkChurnCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(ChunkChurnCommand.NAME + REQUIRES_OP, "true");
+
+        DEFAULT_CONFIG.put(ChunkHotspotsCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(ChunkHotspotsCommand.NAME + REQUIRES_OP, "true");
+
         DEFAULT_CONFIG.put(ChunkInfoCommand.NAME + ENABLED, "true");
         DEFAULT_CONFIG.put(ChunkInfoCommand.NAME + REQUIRES_OP, "true");
         
+        DEFAULT_CONFIG.put(ChunkLoadsCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(ChunkLoadsCommand.NAME + REQUIRES_OP, "true");
+
         DEFAULT_CONFIG.put(CPUCommand.NAME + ENABLED, "true");
         DEFAULT_CONFIG.put(CPUCommand.NAME + REQUIRES_OP, "true");
 
+        DEFAULT_CONFIG.put(EntityCostCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(EntityCostCommand.NAME + REQUIRES_OP, "true");
+
         DEFAULT_CONFIG.put(EntityInfoCommand.NAME + ENABLED, "true");
         DEFAULT_CONFIG.put(EntityInfoCommand.NAME + REQUIRES_OP, "true");
 
         DEFAULT_CONFIG.put(HelpCommand.NAME + ENABLED, "true");
         DEFAULT_CONFIG.put(HelpCommand.NAME + REQUIRES_OP, "false");
 
+        DEFAULT_CONFIG.put(HistoryCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(HistoryCommand.NAME + REQUIRES_OP, "true");
+
+        DEFAULT_CONFIG.put(LagSpikesCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(LagSpikesCommand.NAME + REQUIRES_OP, "true");
+
         DEFAULT_CONFIG.put(MEMCommand.NAME + ENABLED, "true");
         DEFAULT_CONFIG.put(MEMCommand.NAME + REQUIRES_OP, "true");
 
@@ -79,6 +111,15 @@ public final class ConfigUtil {
         DEFAULT_CONFIG.put(PingCommand.NAME + REQUIRES_OP, "false");
         DEFAULT_CONFIG.put(PingCommand.NAME + REQUIRES_OP + "ToPingOthers", "true");
 
+        DEFAULT_CONFIG.put(ProfilerCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(ProfilerCommand.NAME + REQUIRES_OP, "true");
+
+        DEFAULT_CONFIG.put(TaskQueueCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(TaskQueueCommand.NAME + REQUIRES_OP, "true");
+
+        DEFAULT_CONFIG.put(TickBreakdownCommand.NAME + ENABLED, "true");
+        DEFAULT_CONFIG.put(TickBreakdownCommand.NAME + REQUIRES_OP, "true");
+
         DEFAULT_CONFIG.put(TPSCommand.NAME + ENABLED, "true");
         DEFAULT_CONFIG.put(TPSCommand.NAME + REQUIRES_OP, "false");
 
@@ -113,10 +154,36 @@ public final class ConfigUtil {
         } catch (IOException e) {
             LoggerUtil.sendError("Unable to read mc-server-analytics.cfg", e);
         }
+
+        // Config files written by older versions are missing properties added since.
+        final Map<String, String> missingConfig = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : DEFAULT_CONFIG.entrySet()) {
+            if (!config.containsKey(entry.getKey())) {
+                missingConfig.put(entry.getKey(), entry.getValue());
+                config.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!missingConfig.isEmpty()) {
+            appendMissingConfig(configFile, missingConfig);
+        }
+
         configCache = config;
         return config;
     }
 
+    public static long getLongProperty(final Properties config, final String property) {
+        try {
+            return Long.parseLong(config.getProperty(property).trim());
+        } catch (NumberFormatException e) {
+            // The server isn't running yet, so there is nowhere to report the bad value.
+            return Long.parseLong(DEFAULT_CONFIG.get(property));
+        }
+    }
+
+    public static Path getDataDir(final String name) {
+        return Paths.get(System.getProperty("user.dir"), CONFIG_DIR, DATA_DIR, name);
+    }
+
     private static void writeDefaultConfig(Path configFile) {
         try (BufferedWriter writer = Files.newBufferedWriter(configFile)) {
             writer.write("# MC Server Analytics Properties");
@@ -129,4 +196,16 @@ public final class ConfigUtil {
             LoggerUtil.sendError("Unable to write " + CONFIG_FILENAME, e);
         }
     }
+
+    private static void appendMissingConfig(Path configFile, Map<String, String> missingConfig) {
+        try (BufferedWriter writer = Files.newBufferedWriter(configFile, StandardOpenOption.APPEND)) {
+            writer.newLine();
+            for (Map.Entry<String, String> entry : missingConfig.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            LoggerUtil.sendError("Unable to write " + CONFIG_FILENAME, e);
+        }
+    }
 }
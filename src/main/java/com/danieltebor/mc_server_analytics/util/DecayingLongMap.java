@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from long keys to a fixed number of long value columns, kept in primitive
+ * arrays so adding to a key doesn't allocate. {@link #decay} scales every value down and drops
+ * keys whose total falls below a floor, which keeps the map bounded to recently active keys.
+ * Not thread safe.
+ * 
+ * @author Daniel Tebor
+ */
+public final class DecayingLongMap {
+
+    // Keys must not equal EMPTY. Packed chunk and region positions never do within the world border.
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int columns;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] values;
+    private int size = 0;
+
+    // Reused by decay to rebuild the table without the dropped keys.
+    private long[] spareKeys = new long[INITIAL_CAPACITY];
+    private long[] spareValues;
+
+    public DecayingLongMap(final int columns) {
+        this.columns = columns;
+        values = new long[INITIAL_CAPACITY * columns];
+        spareValues = new long[INITIAL_CAPACITY * columns];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public void add(final long key, final int column, final long amount) {
+        int slot = findSlot(keys, key);
+        if (keys[slot] == EMPTY) {
+            // Keeps the table at most half full.
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = findSlot(keys, key);
+            }
+            keys[slot] = key;
+            // Slots freed by decay may still hold the values of a dropped key.
+            Arrays.fill(values, slot * columns, (slot + 1) * columns, 0);
+            size++;
+        }
+        values[slot * columns + column] += amount;
+    }
+
+    public long get(final long key, final int column) {
+        final int slot = findSlot(keys, key);
+        return keys[slot] != EMPTY ? values[slot * columns + column] : 0;
+    }
+
+    public long getTotal(final long key) {
+        final int slot = findSlot(keys, key);
+        return keys[slot] != EMPTY ? getSlotTotal(slot) : 0;
+    }
+
+    /**
+     * Multiplies every value by the factor and removes keys whose total is then below minTotal.
+     */
+    public void decay(final double factor, final long minTotal) {
+        if (spareKeys.length != keys.length) {
+            spareKeys = new long[keys.length];
+            spareValues = new long[values.length];
+        }
+        Arrays.fill(spareKeys, EMPTY);
+
+        size = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == EMPTY) {
+                continue;
+            }
+
+            long total = 0;
+            for (int column = 0; column < columns; column++) {
+                values[slot * columns + column] = (long) (values[slot * columns + column] * factor);
+                total += values[slot * columns + column];
+            }
+            if (total < minTotal) {
+                continue;
+            }
+
+            final int spareSlot = findSlot(spareKeys, keys[slot]);
+            spareKeys[spareSlot] = keys[slot];
+            System.arraycopy(values, slot * columns, spareValues, spareSlot * columns, columns);
+            size++;
+        }
+
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        keys = spareKeys;
+        values = spareValues;
+        spareKeys = oldKeys;
+        spareValues = oldValues;
+    }
+
+    /**
+     * Returns up to n keys with the largest totals, largest first.
+     */
+    public long[] getTopKeys(final int n) {
+        final long[] topKeys = new long[Math.min(n, size)];
+        final long[] topTotals = new long[topKeys.length];
+        int topCount = 0;
+
+        for (int slot = 0; slot < keys.length && topKeys.length > 0; slot++) {
+            if (keys[slot] == EMPTY) {
+                continue;
+            }
+
+            final long total = getSlotTotal(slot);
+            if (topCount == topKeys.length && total <= topTotals[topCount - 1]) {
+                continue;
+            }
+
+            // Insertion into the sorted top list, dropping the smallest once it is full.
+            int i = topCount < topKeys.length ? topCount++ : topCount - 1;
+            while (i > 0 && topTotals[i - 1] < total) {
+                topKeys[i] = topKeys[i - 1];
+                topTotals[i] = topTotals[i - 1];
+                i--;
+            }
+            topKeys[i] = keys[slot];
+            topTotals[i] = total;
+        }
+
+        return topKeys;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private long getSlotTotal(final int slot) {
+        long total = 0;
+        for (int column = 0; column < columns; column++) {
+            total += values[slot * columns + column];
+        }
+        return total;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                final int newSlot = findSlot(keys, oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                System.arraycopy(oldValues, slot * columns, values, newSlot * columns, columns);
+            }
+        }
+    }
+
+    private static int findSlot(final long[] keys, final long key) {
+        final int mask = keys.length - 1;
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+
+        int slot = (int) (mixed ^ (mixed >>> 32)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
\ No newline at end of file
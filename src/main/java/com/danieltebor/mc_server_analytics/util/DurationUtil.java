@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.util;
+
+/**
+ * Parses and formats durations written like 90s, 30m, 6h, 7d, 2w, or 1h30m.
+ * 
+ * @author Daniel Tebor
+ */
+public final class DurationUtil {
+
+    private static final char[] UNITS = {'w', 'd', 'h', 'm', 's'};
+    private static final long[] UNIT_SECONDS = {60 * 60 * 24 * 7, 60 * 60 * 24, 60 * 60, 60, 1};
+
+    private DurationUtil() {}
+
+    /**
+     * Returns the duration in seconds, or -1 if the string isn't a valid positive duration.
+     */
+    public static long parseSeconds(final String duration) {
+        long seconds = 0;
+        long amount = -1;
+
+        for (int i = 0; i < duration.length(); i++) {
+            final char c = Character.toLowerCase(duration.charAt(i));
+
+            if (c >= '0' && c <= '9') {
+                amount = (amount == -1 ? 0 : amount * 10) + (c - '0');
+                if (amount > Integer.MAX_VALUE) {
+                    return -1;
+                }
+                continue;
+            }
+
+            final int unit = new String(UNITS).indexOf(c);
+            if (unit == -1 || amount == -1) {
+                return -1;
+            }
+            seconds += amount * UNIT_SECONDS[unit];
+            amount = -1;
+        }
+
+        // A trailing number without a unit is invalid.
+        return amount == -1 && seconds > 0 ? seconds : -1;
+    }
+
+    /**
+     * Formats the duration with at most its two largest units, e.g. 5400 as 1h30m.
+     */
+    public static String format(final long seconds) {
+        final StringBuilder formatted = new StringBuilder();
+        long remaining = seconds;
+        int unitsAppended = 0;
+
+        for (int i = 0; i < UNITS.length && unitsAppended < 2; i++) {
+            final long amount = remaining / UNIT_SECONDS[i];
+            if (amount > 0) {
+                formatted.append(amount).append(UNITS[i]);
+                remaining -= amount * UNIT_SECONDS[i];
+                unitsAppended++;
+            } else if (unitsAppended > 0) {
+                break;
+            }
+        }
+
+        return formatted.length() > 0 ? formatted.toString() : "0s";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-memory histogram of non-negative long values. Each power of two is split into
+ * {@value #SUB_BUCKET_COUNT} linear sub-buckets, so any recorded value is reported within
+ * roughly 3% of its true value no matter how many values are recorded.
+ * 
+ * Not thread-safe. A reader racing the writer may see a slightly stale distribution, but
+ * never an invalid one.
+ * 
+ * @author Daniel Tebor
+ */
+public final class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final int[] counts = new int[BUCKET_COUNT];
+    private long totalCount = 0;
+
+    public void record(final long value) {
+        counts[getBucketIndex(value)]++;
+        totalCount++;
+    }
+
+    public void remove(final long value) {
+        final int bucketIdx = getBucketIndex(value);
+        if (counts[bucketIdx] > 0) {
+            counts[bucketIdx]--;
+            totalCount--;
+        }
+    }
+
+    public void add(final LogLinearHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the highest value equivalent to the value at the given percentile (0 - 100),
+     * or 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        int lastBucketIdx = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            seen += counts[i];
+            lastBucketIdx = i;
+            if (seen >= rank) {
+                break;
+            }
+        }
+
+        return getBucketUpperBound(lastBucketIdx);
+    }
+
+    public long getMaxValue() {
+        return getValueAtPercentile(100);
+    }
+
+    private static int getBucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+
+        final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        final int subBucketIdx = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucketIdx;
+    }
+
+    private static long getBucketUpperBound(final int bucketIdx) {
+        if (bucketIdx < SUB_BUCKET_COUNT) {
+            return bucketIdx;
+        }
+
+        final int shift = (bucketIdx - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        final int subBucketIdx = (bucketIdx - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        final long lowerBound = (long) (SUB_BUCKET_COUNT + subBucketIdx) << shift;
+
+        return lowerBound + (1L << shift) - 1;
+    }
+}
\ No newline at end of file
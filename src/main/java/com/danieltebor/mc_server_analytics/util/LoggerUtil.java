@@ -24,6 +24,8 @@ package com.danieltebor.mc_server_analytics.util;
 
 import com.danieltebor.mc_server_analytics.MCServerAnalytics;
 
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
 /**
@@ -37,7 +39,25 @@ public final class LoggerUtil {
     public static void sendInfo(String msg, boolean shouldUsePrefix) {
         MCServerAnalytics.getInstance().getServer()
             .getCommandSource()
-            .sendMessage(Text.literal(shouldUsePrefix ? MSG_PREFIX : "" + msg));
+            .sendMessage(Text.literal((shouldUsePrefix ? MSG_PREFIX : "") + msg));
+    }
+
+    /**
+     * Sends the message to the console and every online op.
+     */
+    public static void sendAlert(String msg) {
+        final MinecraftServer server = MCServerAnalytics.getInstance().getServer();
+        if (server == null) {
+            return;
+        }
+
+        server.getCommandSource().sendMessage(Text.literal(MSG_PREFIX + msg));
+        for (String opName : server.getPlayerManager().getOpNames()) {
+            final ServerPlayerEntity player = server.getPlayerManager().getPlayer(opName);
+            if (player != null) {
+                player.sendMessage(Text.literal(MSG_PREFIX + msg));
+            }
+        }
     }
 
     public static void sendError(String msg, Exception e) {
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.danieltebor.mc_server_analytics.util;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Maps time onto a ring of slots that each cover one slice of a sliding window, for callers that
+ * keep per-slot values in their own arrays. Advancing hands each slot whose slice fell out of the
+ * window to the clear callback before it is reused, so the window reaches back between its length
+ * and its length plus one slice.
+ * 
+ * Not thread-safe.
+ * 
+ * @author Daniel Tebor
+ */
+public final class SliceRing {
+
+    private static final long NS_PER_SECOND = 1000000000L;
+
+    private final long startTimeNS = System.nanoTime();
+    private final long sliceNS;
+    // The slice in progress plus enough full slices to cover the window.
+    private final int sliceCount;
+    private final IntConsumer clearSlot;
+    private long currentSlice = 0;
+
+    public SliceRing(final int windowSeconds, final int sliceSeconds, final IntConsumer clearSlot) {
+        if (sliceSeconds <= 0 || windowSeconds % sliceSeconds != 0) {
+            throw new IllegalArgumentException("windowSeconds must be a multiple of sliceSeconds");
+        }
+
+        this.sliceNS = sliceSeconds * NS_PER_SECOND;
+        this.sliceCount = windowSeconds / sliceSeconds + 1;
+        this.clearSlot = clearSlot;
+    }
+
+    /**
+     * Moves to the slice in progress and returns its slot.
+     */
+    public int advance() {
+        final long slice = (System.nanoTime() - startTimeNS) / sliceNS;
+
+        // Slices skipped while nothing was recorded are cleared too, since their slots hold older values.
+        for (long s = Math.max(currentSlice + 1, slice - sliceCount + 1); s <= slice; s++) {
+            clearSlot.accept((int) (s % sliceCount));
+        }
+        currentSlice = Math.max(currentSlice, slice);
+
+        return getSlot(0);
+    }
+
+    /**
+     * Returns the slot of the slice slicesAgo before the one in progress as of the last advance,
+     * or -1 if that slice started before the ring did.
+     */
+    public int getSlot(final int slicesAgo) {
+        return slicesAgo <= currentSlice ? (int) ((currentSlice - slicesAgo) % sliceCount) : -1;
+    }
+
+    public int getSliceCount() {
+        return sliceCount;
+    }
+
+    /**
+     * Returns the span in ns the window covers right now, which is shorter than the window until
+     * the ring has run for that long.
+     */
+    public long getCoveredNS() {
+        final long elapsedNS = System.nanoTime() - startTimeNS;
+        return Math.min(elapsedNS, (sliceCount - 1) * sliceNS + elapsedNS % sliceNS);
+    }
+}
\ No newline at end of file
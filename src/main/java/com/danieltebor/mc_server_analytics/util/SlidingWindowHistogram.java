@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.util;
+
+/**
+ * {@link LogLinearHistogram} over a sliding window, kept as a ring of histograms that each cover
+ * one slice of the window. Slices are cleared as they fall out of the window, so the window
+ * reaches back between its length and its length plus one slice.
+ * 
+ * Not thread-safe.
+ * 
+ * @author Daniel Tebor
+ */
+public final class SlidingWindowHistogram {
+
+    private static final long NS_PER_SECOND = 1000000000L;
+
+    private final LogLinearHistogram[] slices;
+    private final SliceRing sliceRing;
+
+    public SlidingWindowHistogram(final int windowSeconds, final int sliceSeconds) {
+        sliceRing = new SliceRing(windowSeconds, sliceSeconds, this::clearSlice);
+        slices = new LogLinearHistogram[sliceRing.getSliceCount()];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new LogLinearHistogram();
+        }
+    }
+
+    private void clearSlice(final int slot) {
+        slices[slot].clear();
+    }
+
+    public void record(final long value) {
+        slices[sliceRing.advance()].record(value);
+    }
+
+    /**
+     * Returns the values in the window merged into a new histogram.
+     */
+    public LogLinearHistogram getHistogram() {
+        sliceRing.advance();
+
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+        for (LogLinearHistogram slice : slices) {
+            histogram.add(slice);
+        }
+        return histogram;
+    }
+
+    public long getCount() {
+        sliceRing.advance();
+
+        long count = 0;
+        for (LogLinearHistogram slice : slices) {
+            count += slice.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of values recorded per second over the span the window covers.
+     */
+    public float getRatePerSecond() {
+        final long count = getCount();
+        final long coveredNS = sliceRing.getCoveredNS();
+
+        return coveredNS > 0 ? count * (float) NS_PER_SECOND / coveredNS : 0;
+    }
+}
\ No newline at end of file
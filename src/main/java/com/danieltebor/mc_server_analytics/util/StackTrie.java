@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2023 Daniel Tebor
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.danieltebor.mc_server_analytics.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds sampled stack traces into a call tree kept in parallel primitive arrays, so that adding a
+ * sample doesn't allocate once the stacks it contains have been seen. Not thread safe.
+ * 
+ * @author Daniel Tebor
+ */
+public final class StackTrie {
+
+    private static final int ROOT = 0;
+    private static final long EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<StackTraceElement, Integer> elementFrameIds = new HashMap<>();
+    private final Map<String, Integer> frameIds = new HashMap<>();
+    private final List<String> frameNames = new ArrayList<>();
+    private long[] frameSelfCounts = new long[INITIAL_CAPACITY];
+
+    private int nodeCount;
+    private int[] nodeParents = new int[INITIAL_CAPACITY];
+    private int[] nodeFrameIds = new int[INITIAL_CAPACITY];
+    private long[] nodeSelfCounts = new long[INITIAL_CAPACITY];
+
+    // Open addressing table from (parent node, frame id) to child node.
+    private long[] childKeys = new long[INITIAL_CAPACITY * 2];
+    private int[] childNodes = new int[INITIAL_CAPACITY * 2];
+
+    private long sampleCount;
+
+    public StackTrie() {
+        clear();
+    }
+
+    public void addSample(final StackTraceElement[] stackTrace) {
+        int node = ROOT;
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            node = getOrAddChild(node, getFrameId(stackTrace[i]));
+        }
+
+        nodeSelfCounts[node]++;
+        if (node != ROOT) {
+            frameSelfCounts[nodeFrameIds[node]]++;
+        }
+        sampleCount++;
+    }
+
+    private int getFrameId(final StackTraceElement element) {
+        final Integer elementFrameId = elementFrameIds.get(element);
+        if (elementFrameId != null) {
+            return elementFrameId;
+        }
+
+        // Frames are named by method, so elements from different lines of a method share an id.
+        final String frameName = element.getClassName() + "." + element.getMethodName();
+        Integer frameId = frameIds.get(frameName);
+        if (frameId == null) {
+            frameId = frameNames.size();
+            frameIds.put(frameName, frameId);
+            frameNames.add(frameName);
+            if (frameId == frameSelfCounts.length) {
+                frameSelfCounts = Arrays.copyOf(frameSelfCounts, frameSelfCounts.length * 2);
+            }
+        }
+        elementFrameIds.put(element, frameId);
+        return frameId;
+    }
+
+    private int getOrAddChild(final int parent, final int frameId) {
+        final long key = ((long) parent << 32) | frameId;
+        final int mask = childKeys.length - 1;
+
+        int slot = hash(key) & mask;
+        while (childKeys[slot] != EMPTY) {
+            if (childKeys[slot] == key) {
+                return childNodes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        final int node = addNode(parent, frameId);
+        childKeys[slot] = key;
+        childNodes[slot] = node;
+
+        // Keeps the table at most half full.
+        if (nodeCount * 2 > childKeys.length) {
+            growChildTable();
+        }
+        return node;
+    }
+
+    private int addNode(final int parent, final int frameId) {
+        if (nodeCount == nodeParents.length) {
+            nodeParents = Arrays.copyOf(nodeParents, nodeCount * 2);
+            nodeFrameIds = Arrays.copyOf(nodeFrameIds, nodeCount * 2);
+            nodeSelfCounts = Arrays.copyOf(nodeSelfCounts, nodeCount * 2);
+        }
+
+        nodeParents[nodeCount] = parent;
+        nodeFrameIds[nodeCount] = frameId;
+        nodeSelfCounts[nodeCount] = 0;
+        return nodeCount++;
+    }
+
+    private void growChildTable() {
+        final long[] oldChildKeys = childKeys;
+        final int[] oldChildNodes = childNodes;
+
+        childKeys = new long[oldChildKeys.length * 2];
+        childNodes = new int[oldChildNodes.length * 2];
+        Arrays.fill(childKeys, EMPTY);
+
+        final int mask = childKeys.length - 1;
+        for (int i = 0; i < oldChildKeys.length; i++) {
+            if (oldChildKeys[i] == EMPTY) {
+                continue;
+            }
+
+            int slot = hash(oldChildKeys[i]) & mask;
+            while (childKeys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            childKeys[slot] = oldChildKeys[i];
+            childNodes[slot] = oldChildNodes[i];
+        }
+    }
+
+    private static int hash(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * Writes one "frame;frame;frame count" line per distinct stack, root frame first,
+     * which is the collapsed format read by flame graph tools.
+     */
+    public void writeCollapsed(final Writer writer) throws IOException {
+        int[] path = new int[64];
+        final StringBuilder lineBuilder = new StringBuilder();
+
+        for (int node = 1; node < nodeCount; node++) {
+            if (nodeSelfCounts[node] == 0) {
+                continue;
+            }
+
+            int depth = 0;
+            for (int pathNode = node; pathNode != ROOT; pathNode = nodeParents[pathNode]) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = pathNode;
+            }
+
+            lineBuilder.setLength(0);
+            for (int i = depth - 1; i >= 0; i--) {
+                lineBuilder.append(frameNames.get(nodeFrameIds[path[i]]));
+                lineBuilder.append(i != 0 ? ';' : ' ');
+            }
+            lineBuilder.append(nodeSelfCounts[node]);
+            lineBuilder.append('\n');
+            writer.write(lineBuilder.toString());
+        }
+    }
+
+    /**
+     * Returns the frame that most samples were taken in, or null if there are no samples.
+     */
+    public String getHottestFrame() {
+        int hottestFrameId = -1;
+        for (int frameId = 0; frameId < frameNames.size(); frameId++) {
+            if (frameSelfCounts[frameId] > 0
+                && (hottestFrameId == -1 || frameSelfCounts[frameId] > frameSelfCounts[hottestFrameId])) {
+                hottestFrameId = frameId;
+            }
+        }
+
+        return hottestFrameId != -1 ? frameNames.get(hottestFrameId) : null;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void clear() {
+        elementFrameIds.clear();
+        frameIds.clear();
+        frameNames.clear();
+        Arrays.fill(frameSelfCounts, 0);
+        Arrays.fill(childKeys, EMPTY);
+
+        nodeCount = 0;
+        addNode(ROOT, -1);
+        sampleCount = 0;
+    }
+}
\ No newline at end of file